@@ -0,0 +1,70 @@
+package com.project.ecommerce_crawler.benchmarks;
+
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.service.UrlSeenStore;
+
+/**
+ * URL-seen checks under contention, as when all workers of a domain enqueue
+ * the links of their pages at once. {@code markSeen} runs the store from 8
+ * threads over a key space of {@code urls} fingerprints, so the hit rate
+ * climbs towards the steady state of a crawl where most links were seen
+ * before. The store is rebuilt every iteration so its size stays bounded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DedupBenchmark {
+    private static final long SPREAD = 0x9E3779B97F4A7C15L;
+
+    @Param({ "1000000" })
+    public long urls;
+
+    private UrlSeenStore urlSeenStore;
+    private Domain domain;
+    private CrawlerProperties properties;
+
+    @Setup
+    public void setUp() throws Exception {
+        properties = new CrawlerProperties();
+        properties.getDedup().setSnapshotDir(Files.createTempDirectory("dedup-benchmark").toString());
+        domain = Fixtures.domain(1);
+    }
+
+    @Setup(Level.Iteration)
+    public void open() {
+        urlSeenStore = new UrlSeenStore(properties);
+        urlSeenStore.open(domain, false);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean markSeen() {
+        return urlSeenStore.markSeen(domain, nextFingerprint());
+    }
+
+    private long nextFingerprint() {
+        return ThreadLocalRandom.current().nextLong(urls) * SPREAD;
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.ecommerce_crawler.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.service.LinkExtractor;
+import com.project.ecommerce_crawler.service.PageLinks;
+import com.project.ecommerce_crawler.service.ProductClassifier;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+
+/**
+ * Per-page cost of link extraction over the storefront fixtures, in
+ * microseconds per page on one core. {@code extractLinks} parses a page held
+ * as a string; {@code extractStreaming} feeds it in 8 KB buffers the way a
+ * fetched body arrives, including the content hash; {@code extractProductUrls}
+ * adds the fingerprint of every product URL found. {@code isProductPage}
+ * classifies every link of the page.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class ExtractionBenchmark {
+    private static final int CHUNK_SIZE = 8192;
+
+    @Param({ "category", "product", "home" })
+    public String page;
+
+    private UrlNormalizer urlNormalizer;
+    private LinkExtractor linkExtractor;
+    private Domain domain;
+    private String html;
+    private List<DataBuffer> chunks;
+    private List<String> links;
+
+    @Setup
+    public void setUp() {
+        CrawlerProperties properties = new CrawlerProperties();
+        urlNormalizer = new UrlNormalizer(properties);
+        linkExtractor = new LinkExtractor(properties, urlNormalizer, new ProductClassifier(properties, urlNormalizer));
+        domain = Fixtures.domain(1);
+        html = Fixtures.page(page);
+
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        chunks = new ArrayList<>();
+        for (int from = 0; from < bytes.length; from += CHUNK_SIZE) {
+            chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                    ByteBuffer.wrap(bytes, from, Math.min(CHUNK_SIZE, bytes.length - from)).slice()));
+        }
+        PageLinks pageLinks = linkExtractor.extract(domain, html);
+        links = new ArrayList<>(pageLinks.productUrls());
+        links.addAll(pageLinks.navigationLinks());
+    }
+
+    @Benchmark
+    public PageLinks extractLinks() {
+        return linkExtractor.extract(domain, html);
+    }
+
+    @Benchmark
+    public long extractStreaming(Blackhole blackhole) {
+        LinkExtractor.Session session = linkExtractor.open(domain);
+        for (DataBuffer chunk : chunks) {
+            session.feed(chunk);
+        }
+        blackhole.consume(session.finish());
+        return session.contentHash();
+    }
+
+    @Benchmark
+    public long extractProductUrls() {
+        long fingerprints = 0;
+        for (String url : linkExtractor.extract(domain, html).productUrls()) {
+            fingerprints ^= urlNormalizer.fingerprint(url);
+        }
+        return fingerprints;
+    }
+
+    @Benchmark
+    public int isProductPage() {
+        int products = 0;
+        for (String link : links) {
+            if (linkExtractor.isProductPage(link)) {
+                products++;
+            }
+        }
+        return products;
+    }
+}
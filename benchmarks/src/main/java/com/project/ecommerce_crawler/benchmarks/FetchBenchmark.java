@@ -0,0 +1,110 @@
+package com.project.ecommerce_crawler.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.project.ecommerce_crawler.config.CrawlerConfig;
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Page fetches against a local stub server that serves a 60 KB category page,
+ * with 16 concurrent callers. {@code baseline} is a default Reactor Netty
+ * client as configured before the fetch settings existed, {@code tuned} is
+ * the client built from {@code crawler.fetch.*} and {@code tuned-identity}
+ * the same without compression. Loopback has no bandwidth to save, so the
+ * difference between the two is the CPU cost of gzip; over a real network the
+ * 60 KB page shrinks to a few KB. Throughput mode reports requests per
+ * second; sample mode reports the latency distribution, including p0.99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class FetchBenchmark {
+    private static final String PAGE = "<html><head><title>Shirts</title></head><body><ul>"
+            + "<li><a href=\"/product/12345?color=red\">Linen shirt</a> <span class=\"price\">49.90</span></li>"
+            .repeat(600)
+            + "</ul></body></html>";
+
+    @Param({ "baseline", "tuned", "tuned-identity" })
+    public String client;
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @Setup
+    public void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .compress(true)
+                .route(routes -> routes.get("/category", (request, response) -> response
+                        .header("Content-Type", "text/html; charset=utf-8")
+                        .sendString(Mono.just(PAGE))))
+                .bindNow();
+
+        HttpClient httpClient;
+        if (client.startsWith("tuned")) {
+            CrawlerProperties.Fetch config = new CrawlerProperties().getFetch();
+            config.setCompression(!client.equals("tuned-identity"));
+            connectionProvider = CrawlerConfig.connectionProvider(config);
+            httpClient = CrawlerConfig.httpClient(config, connectionProvider);
+        } else {
+            connectionProvider = ConnectionProvider.create("baseline");
+            httpClient = HttpClient.create(connectionProvider).responseTimeout(Duration.ofSeconds(30));
+        }
+        webClient = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.port())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionProvider.dispose();
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public Long fetch() {
+        return webClient.get()
+                .uri("/category")
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .map(buffer -> {
+                    long size = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return size;
+                })
+                .reduce(0L, Long::sum)
+                .block();
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.ecommerce_crawler.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import com.project.ecommerce_crawler.model.Domain;
+
+/**
+ * Storefront pages under {@code fixtures/}, modelled on a typical theme: mega
+ * menu, faceted navigation, a product grid with swatch and quick-view links,
+ * tracking parameters and inline scripts. {@code category} is a 48-product
+ * listing, {@code product} a detail page with related products and reviews,
+ * {@code home} a landing page with several featured collections.
+ */
+final class Fixtures {
+    static final String SITE = "https://www.northwind-outfitters.example";
+
+    private Fixtures() {
+    }
+
+    static String page(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name + ".html")) {
+            if (in == null) {
+                throw new IllegalArgumentException("No fixture " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Domain domain(long id) {
+        Domain domain = new Domain();
+        domain.setId(id);
+        domain.setUrl(SITE);
+        return domain;
+    }
+}
@@ -0,0 +1,219 @@
+package com.project.ecommerce_crawler.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.project.ecommerce_crawler.EcommerceCrawlerApplication;
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawlStatus;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.repository.DomainRepository;
+import com.project.ecommerce_crawler.repository.ProductUrlRepository;
+import com.project.ecommerce_crawler.service.CrawlFrontier;
+import com.project.ecommerce_crawler.service.CrawlerScheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Crawls {@link SyntheticSite}s with the full application and reports
+ * throughput while it runs. Each site is served on its own loopback address
+ * (127.0.0.1, 127.0.0.2, ...), so politeness budgets apply per site as they
+ * would across real hosts; that needs Linux, where all of 127/8 is local.
+ *
+ * <p>Options starting with {@code --site.} configure the generated sites
+ * (see {@link SyntheticSite.Config}), {@code --sites}, {@code --interval} and
+ * {@code --max-duration} the run, {@code --report} a JSON summary file.
+ * {@code --targets} takes a comma-separated list of site URLs to crawl
+ * instead, e.g. {@link SyntheticSite}s started in another process so that
+ * serving pages does not compete with the crawler for CPU. Everything else
+ * is passed to Spring, so {@code --spring.datasource.url} or any
+ * {@code --crawler.*} setting overrides the harness defaults below. The
+ * defaults use in-memory H2, which holds every row on the heap; point the
+ * harness at PostgreSQL for runs of millions of pages.
+ */
+public final class LoadHarness {
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("spring.main.web-application-type", "none"),
+            Map.entry("spring.main.banner-mode", "off"),
+            Map.entry("spring.datasource.url",
+                    "jdbc:h2:mem:load;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"),
+            Map.entry("spring.datasource.username", "sa"),
+            Map.entry("spring.datasource.password", ""),
+            Map.entry("spring.jpa.hibernate.ddl-auto", "create-drop"),
+            Map.entry("logging.level.root", "WARN"),
+            Map.entry("crawler.seed-domains", ""),
+            Map.entry("crawler.discovery.mode", "links"),
+            Map.entry("crawler.frontier.workers-per-domain", "64"),
+            Map.entry("crawler.frontier.max-concurrent-domains", "16"),
+            Map.entry("crawler.frontier.max-depth", "100"),
+            Map.entry("crawler.politeness.initial-rate", "500"),
+            Map.entry("crawler.politeness.min-rate", "500"),
+            Map.entry("crawler.politeness.max-rate", "500"),
+            Map.entry("crawler.politeness.burst", "50"),
+            Map.entry("crawler.politeness.max-connections-per-host", "64"),
+            Map.entry("crawler.fetch.pool-size-per-host", "64"));
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        Map<String, String> site = new LinkedHashMap<>();
+        Map<String, String> spring = new LinkedHashMap<>(DEFAULTS);
+        options.forEach((key, value) -> {
+            if (key.startsWith("site.")) {
+                site.put(key.substring(5), value);
+            } else if (!List.of("sites", "targets", "interval", "max-duration", "report").contains(key)) {
+                spring.put(key, value);
+            }
+        });
+        int siteCount = Integer.parseInt(options.getOrDefault("sites", "1"));
+        Duration interval = Duration.ofSeconds(Long.parseLong(options.getOrDefault("interval", "5")));
+        Duration maxDuration = Duration.ofMinutes(Long.parseLong(options.getOrDefault("max-duration", "60")));
+        spring.putIfAbsent("crawler.dedup.snapshot-dir", Files.createTempDirectory("load-harness").toString());
+
+        SyntheticSite.Config config = SyntheticSite.Config.from(site);
+        SyntheticSite.Config perSite = new SyntheticSite.Config(Math.max(1, config.pages() / siteCount),
+                config.productRatio(), config.fanout(), config.latency(), config.errorRate(), config.pageBytes(),
+                config.sitemaps());
+        List<SyntheticSite> sites = new ArrayList<>();
+        List<String> targets = new ArrayList<>();
+        if (options.containsKey("targets")) {
+            targets.addAll(List.of(options.get("targets").split(",")));
+        } else {
+            for (int i = 1; i <= siteCount; i++) {
+                SyntheticSite synthetic = new SyntheticSite(perSite).start("127.0.0." + i, 0);
+                sites.add(synthetic);
+                targets.add(synthetic.url());
+            }
+            System.out.printf("%d site(s) with %d categories and %d products each%n", siteCount,
+                    sites.get(0).categories(), sites.get(0).products());
+        }
+
+        String[] springArgs = spring.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EcommerceCrawlerApplication.class)
+                .run(springArgs)) {
+            Report report = run(context, targets, interval, maxDuration);
+            System.out.println(report.summary());
+            if (options.containsKey("report")) {
+                Files.writeString(Path.of(options.get("report")), report.json());
+            }
+        } finally {
+            sites.forEach(SyntheticSite::stop);
+        }
+    }
+
+    private static Report run(ConfigurableApplicationContext context, List<String> targets, Duration interval,
+            Duration maxDuration) throws InterruptedException {
+        DomainRepository domainRepository = context.getBean(DomainRepository.class);
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+        CrawlFrontier crawlFrontier = context.getBean(CrawlFrontier.class);
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        List<Domain> domains = new ArrayList<>();
+        for (String target : targets) {
+            Domain domain = new Domain();
+            domain.setUrl(target);
+            domain.setStatus(CrawlStatus.PENDING);
+            domains.add(domainRepository.save(domain));
+        }
+        List<Long> ids = domains.stream().map(Domain::getId).toList();
+
+        System.out.printf("%8s %10s %9s %12s %11s %10s %9s %9s%n",
+                "elapsed", "pages", "pages/s", "products/s", "db rows/s", "frontier", "heap MB", "done");
+        long start = System.nanoTime();
+        Sample previous = Sample.take(meterRegistry, 0);
+        long peakHeap = 0;
+        context.getBean(CrawlerScheduler.class).crawl(domains);
+        while (true) {
+            Thread.sleep(interval.toMillis());
+            long elapsed = System.nanoTime() - start;
+            Sample sample = Sample.take(meterRegistry, elapsed);
+            long heap = memory.getHeapMemoryUsage().getUsed();
+            peakHeap = Math.max(peakHeap, heap);
+            long done = domainRepository.findAllById(ids).stream()
+                    .filter(domain -> domain.getStatus() == CrawlStatus.COMPLETED
+                            || domain.getStatus() == CrawlStatus.FAILED)
+                    .count();
+            double seconds = (sample.nanos() - previous.nanos()) / 1e9;
+            System.out.printf("%7ds %10d %9.0f %12.0f %11.0f %10d %9d %6d/%d%n",
+                    Duration.ofNanos(elapsed).toSeconds(), (long) sample.pages(),
+                    (sample.pages() - previous.pages()) / seconds,
+                    (sample.products() - previous.products()) / seconds,
+                    (sample.rows() - previous.rows()) / seconds,
+                    crawlFrontier.totalSize(), heap >> 20, done, ids.size());
+            previous = sample;
+            if (done == ids.size() || elapsed >= maxDuration.toNanos()) {
+                break;
+            }
+        }
+        // The last product URLs are still in the write-behind buffers until the next flush.
+        Thread.sleep(context.getBean(CrawlerProperties.class).getPersistence().getFlushInterval().toMillis() + 500);
+        Sample last = Sample.take(meterRegistry, System.nanoTime() - start);
+        return new Report(targets.size(), last, context.getBean(ProductUrlRepository.class).count(), peakHeap);
+    }
+
+    static Map<String, String> options(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int equals = arg.indexOf('=');
+            options.put(equals < 0 ? arg.substring(2) : arg.substring(2, equals),
+                    equals < 0 ? "true" : arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private record Sample(long nanos, double pages, double products, double rows) {
+
+        static Sample take(MeterRegistry meterRegistry, long nanos) {
+            double pages = meterRegistry.find("crawler.fetch.responses").counters().stream()
+                    .mapToDouble(Counter::count).sum();
+            double products = meterRegistry.find("crawler.page.products").summaries().stream()
+                    .mapToDouble(DistributionSummary::totalAmount).sum()
+                    + meterRegistry.find("crawler.sitemap.urls").tag("outcome", "read").counters().stream()
+                            .mapToDouble(Counter::count).sum();
+            double rows = meterRegistry.find("crawler.persistence.batch.size").summaries().stream()
+                    .mapToDouble(DistributionSummary::totalAmount).sum();
+            return new Sample(nanos, pages, products, rows);
+        }
+    }
+
+    private record Report(int sites, Sample totals, long productRows, long peakHeap) {
+
+        double seconds() {
+            return totals.nanos() / 1e9;
+        }
+
+        String summary() {
+            return String.format("%nCrawled %d pages of %d site(s) in %.1fs: %.0f pages/s, %.0f products/s, "
+                    + "%.0f db rows/s, %d unique product URLs stored, peak heap %d MB",
+                    (long) totals.pages(), sites, seconds(), totals.pages() / seconds(),
+                    totals.products() / seconds(), totals.rows() / seconds(), productRows, peakHeap >> 20);
+        }
+
+        String json() {
+            return String.format(Locale.ROOT, "{\"sites\":%d,\"seconds\":%.3f,\"pages\":%d,\"pagesPerSecond\":%.1f,"
+                    + "\"productsPerSecond\":%.1f,\"dbRowsPerSecond\":%.1f,\"productRows\":%d,\"peakHeapBytes\":%d}%n",
+                    sites, seconds(), (long) totals.pages(), totals.pages() / seconds(),
+                    totals.products() / seconds(), totals.rows() / seconds(), productRows, peakHeap);
+        }
+    }
+}
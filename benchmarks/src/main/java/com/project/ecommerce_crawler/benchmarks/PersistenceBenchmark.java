@@ -0,0 +1,121 @@
+package com.project.ecommerce_crawler.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.ProductUrl;
+import com.project.ecommerce_crawler.service.CrawlStats;
+import com.project.ecommerce_crawler.service.ProductUrlWriter;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Writing one batch of product URLs through {@link ProductUrlWriter} into an
+ * embedded H2 database in PostgreSQL mode, in milliseconds per batch. A
+ * {@code duplicates} share of every batch repeats URLs written before, so the
+ * {@code ON CONFLICT DO NOTHING} path is part of the cost. H2 has no network
+ * round trip, so against PostgreSQL the absolute numbers are higher; the
+ * benchmark is for catching regressions in how batches are built.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class PersistenceBenchmark {
+    private static final String[] SCHEMA = {
+            "DROP ALL OBJECTS",
+            "CREATE SEQUENCE product_url_seq",
+            "CREATE TABLE product_url (id BIGINT NOT NULL, domain_id BIGINT NOT NULL, url_hash BIGINT NOT NULL, "
+                    + "path VARCHAR(2048) NOT NULL, discovered_at TIMESTAMP(6), "
+                    + "CONSTRAINT pk_product_url PRIMARY KEY (domain_id, id), "
+                    + "CONSTRAINT uk_product_url_domain_url_hash UNIQUE (domain_id, url_hash))"
+    };
+
+    @Param({ "100", "1000", "5000" })
+    public int batchSize;
+
+    @Param({ "0.2" })
+    public double duplicates;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private ProductUrlWriter productUrlWriter;
+    private UrlNormalizer urlNormalizer;
+    private Domain domain;
+    private List<ProductUrl> batch;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getPersistence().setBatchSize(Integer.MAX_VALUE);
+        productUrlWriter = new ProductUrlWriter(jdbcTemplate, properties, new SimpleMeterRegistry(),
+                new CrawlStats(jdbcTemplate, properties));
+        urlNormalizer = new UrlNormalizer(properties);
+        domain = Fixtures.domain(1);
+    }
+
+    @Setup(Level.Iteration)
+    public void createSchema() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.execute(statement);
+        }
+        next = 0;
+    }
+
+    @Setup(Level.Invocation)
+    public void nextBatch() {
+        int repeated = next == 0 ? 0 : (int) (batchSize * duplicates);
+        LocalDateTime discoveredAt = LocalDateTime.now();
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            long id = i < repeated ? next - 1 - i % next : next++;
+            String url = Fixtures.SITE + "/products/item-" + id + "?variant=" + (id * 31 % 9973);
+            ProductUrl productUrl = new ProductUrl();
+            productUrl.setUrl(url);
+            productUrl.setUrlHash(urlNormalizer.fingerprint(url));
+            productUrl.setDomain(domain);
+            productUrl.setDiscoveredAt(discoveredAt);
+            batch.add(productUrl);
+        }
+    }
+
+    @Benchmark
+    public int saveProductUrls() {
+        productUrlWriter.submit(batch);
+        return productUrlWriter.flush();
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.destroy();
+    }
+}
@@ -0,0 +1,259 @@
+package com.project.ecommerce_crawler.benchmarks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Generated storefront for load tests. The link graph is a category tree
+ * computed from page numbers, so nothing is held in memory and a site of ten
+ * million pages costs the same to serve as one of ten thousand. Category
+ * {@code i} links to its {@code fanout} children, its parent, a related
+ * category and the top-level menu, and lists its share of the products, so
+ * most links a crawler finds were seen before, as on a real shop. robots.txt
+ * points at a sitemap index with all products and categories. Responses can
+ * be delayed and a share of them answered with 503. Pages carry a stable
+ * ETag, so recrawls get 304s.
+ *
+ * <p>Run standalone with
+ * {@code java -cp benchmarks.jar com.project.ecommerce_crawler.benchmarks.SyntheticSite --pages=100000 --port=8081}.
+ */
+public final class SyntheticSite {
+    private static final int SITEMAP_URLS = 50_000;
+    private static final int SITEMAP_CHUNK = 1_000;
+    private static final String FILLER = "<p class=\"copy\">Cut from breathable organic cotton with a relaxed fit, "
+            + "finished with mother-of-pearl buttons and a curved hem. Machine washable.</p>\n";
+
+    private final Config config;
+    private final long categories;
+    private final long products;
+    private DisposableServer server;
+
+    public SyntheticSite(Config config) {
+        this.config = config;
+        this.categories = Math.max(1, Math.round(config.pages() * (1 - config.productRatio())));
+        this.products = Math.max(0, config.pages() - categories);
+    }
+
+    public SyntheticSite start(String host, int port) {
+        server = HttpServer.create()
+                .host(host)
+                .port(port)
+                .compress(true)
+                .route(routes -> routes
+                        .get("/robots.txt", (request, response) -> text(response, robotsTxt(origin(request))))
+                        .get("/sitemap_index.xml", (request, response) -> xml(response, sitemapIndex(origin(request))))
+                        .get("/sitemap-categories-{part}.xml", (request, response) ->
+                                sitemap(request, response, "/c/", categories))
+                        .get("/sitemap-products-{part}.xml", (request, response) ->
+                                sitemap(request, response, "/product/", products))
+                        .get("/", (request, response) -> page(request, response, 0, true))
+                        .get("/c/{id}", (request, response) -> page(request, response, id(request), true))
+                        .get("/product/{id}", (request, response) -> page(request, response, id(request), false)))
+                .bindNow();
+        return this;
+    }
+
+    public String url() {
+        return "http://" + server.host() + ":" + server.port() + "/";
+    }
+
+    public long categories() {
+        return categories;
+    }
+
+    public long products() {
+        return products;
+    }
+
+    public void stop() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> page(HttpServerRequest request, HttpServerResponse response, long id, boolean category) {
+        if (id < 0 || id >= (category ? categories : products)) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Mono<Void> delay = config.latency().isZero()
+                ? Mono.empty()
+                : Mono.delay(Duration.ofNanos(random.nextLong(2 * config.latency().toNanos() + 1))).then();
+        if (random.nextDouble() < config.errorRate()) {
+            return delay.then(response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send());
+        }
+        String etag = "\"" + (category ? "c" : "p") + id + "\"";
+        if (etag.equals(request.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH))) {
+            return delay.then(response.status(HttpResponseStatus.NOT_MODIFIED).header(HttpHeaderNames.ETAG, etag).send());
+        }
+        return delay.then(response.header(HttpHeaderNames.CONTENT_TYPE, "text/html; charset=utf-8")
+                .header(HttpHeaderNames.ETAG, etag)
+                .sendString(Mono.fromCallable(() -> category ? categoryPage(id) : productPage(id)))
+                .then());
+    }
+
+    private String categoryPage(long id) {
+        StringBuilder html = new StringBuilder(config.pageBytes() + 4096);
+        html.append("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n<title>Category ")
+                .append(id).append("</title>\n<link rel=\"canonical\" href=\"").append(categoryPath(id))
+                .append("\">\n</head>\n<body>\n");
+        menu(html);
+        html.append("<main>\n<h1>Category ").append(id).append("</h1>\n<ul class=\"grid\">\n");
+        long from = id * products / categories;
+        long to = (id + 1) * products / categories;
+        for (long product = from; product < to; product++) {
+            html.append("<li><a href=\"/product/").append(product).append("\"><img src=\"/img/").append(product)
+                    .append(".jpg\" alt=\"\"></a><a href=\"/product/").append(product).append("?utm_source=grid\">")
+                    .append("Product ").append(product).append("</a> <span class=\"price\">")
+                    .append(10 + product % 90).append(".90</span></li>\n");
+        }
+        html.append("</ul>\n<ul class=\"subcategories\">\n");
+        for (long child = id * config.fanout() + 1; child <= id * config.fanout() + config.fanout() && child < categories; child++) {
+            html.append("<li><a href=\"").append(categoryPath(child)).append("\">Category ").append(child)
+                    .append("</a></li>\n");
+        }
+        html.append("</ul>\n");
+        if (id > 0) {
+            html.append("<a href=\"").append(categoryPath((id - 1) / config.fanout())).append("\">Up</a>\n");
+        }
+        html.append("<a href=\"").append(categoryPath(Long.remainderUnsigned(id * 0x9E3779B97F4A7C15L, categories)))
+                .append("\">Related</a>\n</main>\n");
+        return finish(html);
+    }
+
+    private String productPage(long id) {
+        StringBuilder html = new StringBuilder(config.pageBytes() + 2048);
+        html.append("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n<title>Product ")
+                .append(id).append("</title>\n<meta property=\"og:type\" content=\"product\">\n")
+                .append("<script type=\"application/ld+json\">{\"@context\":\"https://schema.org/\",\"@type\":\"Product\",")
+                .append("\"sku\":\"SKU-").append(id).append("\"}</script>\n</head>\n<body>\n");
+        menu(html);
+        long category = products == 0 ? 0 : Math.min(categories - 1, id * categories / products);
+        html.append("<main>\n<h1>Product ").append(id).append("</h1>\n<a href=\"").append(categoryPath(category))
+                .append("\">Back to category</a>\n</main>\n");
+        return finish(html);
+    }
+
+    private void menu(StringBuilder html) {
+        html.append("<nav>\n<a href=\"/\">Home</a>\n");
+        for (long top = 1; top <= config.fanout() && top < categories; top++) {
+            html.append("<a href=\"").append(categoryPath(top)).append("\">Category ").append(top).append("</a>\n");
+        }
+        html.append("</nav>\n");
+    }
+
+    private String finish(StringBuilder html) {
+        while (html.length() < config.pageBytes()) {
+            html.append(FILLER);
+        }
+        return html.append("<footer>Synthetic Outfitters</footer>\n</body>\n</html>\n").toString();
+    }
+
+    private static String categoryPath(long id) {
+        return id == 0 ? "/" : "/c/" + id;
+    }
+
+    private String robotsTxt(String origin) {
+        StringBuilder robots = new StringBuilder("User-agent: *\nDisallow: /cart\n");
+        if (config.sitemaps()) {
+            robots.append("Sitemap: ").append(origin).append("/sitemap_index.xml\n");
+        }
+        return robots.toString();
+    }
+
+    private Flux<String> sitemapIndex(String origin) {
+        return Flux.concat(
+                Flux.just("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                        + "<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n"),
+                parts("categories", categories, origin),
+                parts("products", products, origin),
+                Flux.just("</sitemapindex>\n"));
+    }
+
+    private static Flux<String> parts(String name, long urls, String origin) {
+        return Flux.range(0, (int) ((urls + SITEMAP_URLS - 1) / SITEMAP_URLS))
+                .map(part -> "<sitemap><loc>" + origin + "/sitemap-" + name + "-" + part + ".xml</loc></sitemap>\n");
+    }
+
+    private Mono<Void> sitemap(HttpServerRequest request, HttpServerResponse response, String path, long urls) {
+        long from = (long) Integer.parseInt(request.param("part")) * SITEMAP_URLS;
+        if (from >= urls) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send();
+        }
+        long to = Math.min(urls, from + SITEMAP_URLS);
+        String prefix = "<url><loc>" + origin(request) + path;
+        Flux<String> entries = Flux.range(0, (int) ((to - from + SITEMAP_CHUNK - 1) / SITEMAP_CHUNK))
+                .map(chunk -> {
+                    StringBuilder xml = new StringBuilder(SITEMAP_CHUNK * (prefix.length() + 24));
+                    for (long id = from + (long) chunk * SITEMAP_CHUNK; id < Math.min(to, from + (long) (chunk + 1) * SITEMAP_CHUNK); id++) {
+                        xml.append(prefix).append(id).append("</loc></url>\n");
+                    }
+                    return xml.toString();
+                });
+        return xml(response, Flux.concat(
+                Flux.just("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                        + "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n"),
+                entries,
+                Flux.just("</urlset>\n")));
+    }
+
+    private static Mono<Void> text(HttpServerResponse response, String body) {
+        return response.header(HttpHeaderNames.CONTENT_TYPE, "text/plain").sendString(Mono.just(body)).then();
+    }
+
+    private static Mono<Void> xml(HttpServerResponse response, Flux<String> body) {
+        return response.header(HttpHeaderNames.CONTENT_TYPE, "application/xml").sendString(body).then();
+    }
+
+    private static String origin(HttpServerRequest request) {
+        return request.scheme() + "://" + request.requestHeaders().get(HttpHeaderNames.HOST);
+    }
+
+    private static long id(HttpServerRequest request) {
+        try {
+            return Long.parseLong(request.param("id"));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param pages       categories plus products
+     * @param productRatio share of the pages that are products
+     * @param fanout      subcategories per category
+     * @param latency     mean response delay; actual delays are uniform in [0, 2 * latency]
+     * @param errorRate   share of page responses answered with 503
+     * @param pageBytes   minimum page size, reached with filler paragraphs
+     * @param sitemaps    whether robots.txt lists the sitemap index
+     */
+    public record Config(long pages, double productRatio, int fanout, Duration latency, double errorRate,
+            int pageBytes, boolean sitemaps) {
+
+        static Config from(Map<String, String> options) {
+            return new Config(
+                    Long.parseLong(options.getOrDefault("pages", "10000")),
+                    Double.parseDouble(options.getOrDefault("product-ratio", "0.9")),
+                    Integer.parseInt(options.getOrDefault("fanout", "8")),
+                    Duration.ofMillis(Long.parseLong(options.getOrDefault("latency-ms", "20"))),
+                    Double.parseDouble(options.getOrDefault("error-rate", "0.01")),
+                    Integer.parseInt(options.getOrDefault("page-bytes", "30000")),
+                    Boolean.parseBoolean(options.getOrDefault("sitemaps", "true")));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = LoadHarness.options(args);
+        SyntheticSite site = new SyntheticSite(Config.from(options))
+                .start(options.getOrDefault("host", "127.0.0.1"), Integer.parseInt(options.getOrDefault("port", "8081")));
+        System.out.printf("Serving %d categories and %d products at %s%n", site.categories(), site.products(), site.url());
+        Thread.currentThread().join();
+    }
+}
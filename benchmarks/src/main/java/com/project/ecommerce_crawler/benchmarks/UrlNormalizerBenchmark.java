@@ -0,0 +1,65 @@
+package com.project.ecommerce_crawler.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+
+/**
+ * Single-threaded throughput of the URL canonicalizer, i.e. links per second
+ * per core, over a mix of hrefs as they appear on category pages.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class UrlNormalizerBenchmark {
+    private static final String[] HREFS = {
+            "/product/12345",
+            "/collections/men/products/linen-shirt?variant=4011&utm_source=instagram&utm_medium=social",
+            "../women/dresses?sort=price-asc&page=2",
+            "//www.example.com/p/98765#reviews",
+            "https://WWW.Example.com:443/category/./shoes/../bags;jsessionid=0A1B2C?b=2&a=1",
+            "red-shirt/p-mp000000012345678?gclid=abc&size=m",
+            "?page=3&filter=color%3ared",
+            "mailto:care@example.com"
+    };
+
+    private UrlNormalizer urlNormalizer;
+    private UrlNormalizer.Base base;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        urlNormalizer = new UrlNormalizer(new CrawlerProperties());
+        base = urlNormalizer.base("https://www.example.com/collections/men/shirts");
+    }
+
+    @Benchmark
+    public String normalize() {
+        String href = HREFS[next++ & (HREFS.length - 1)];
+        return urlNormalizer.normalize(base, href);
+    }
+
+    @Benchmark
+    public long normalizeAndFingerprint() {
+        String href = HREFS[next++ & (HREFS.length - 1)];
+        String url = urlNormalizer.normalize(base, href);
+        return url == null ? 0 : urlNormalizer.fingerprint(url);
+    }
+}
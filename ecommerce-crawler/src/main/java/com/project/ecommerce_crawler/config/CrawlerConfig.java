@@ -1,33 +1,67 @@
 package com.project.ecommerce_crawler.config;
 
-import com.google.common.hash.BloomFilter;
-import com.google.common.hash.Funnels;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 
-import java.nio.charset.Charset;
-import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
+@EnableConfigurationProperties(CrawlerProperties.class)
 public class CrawlerConfig {
     
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider(CrawlerProperties crawlerProperties) {
+        return connectionProvider(crawlerProperties.getFetch());
+    }
+    
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(CrawlerProperties crawlerProperties, ConnectionProvider connectionProvider) {
+        CrawlerProperties.Fetch fetch = crawlerProperties.getFetch();
         return WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(
-                        HttpClient.create()
-                                .responseTimeout(Duration.ofSeconds(30))
-                ))
+                .defaultHeader(HttpHeaders.USER_AGENT, crawlerProperties.getRobots().getUserAgent())
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) fetch.getMaxBodySize().toBytes()))
+                .clientConnector(new ReactorClientHttpConnector(httpClient(fetch, connectionProvider)))
+                .build();
+    }
+    
+    /**
+     * Connection pool shared by all fetches. Reactor Netty keeps one pool per
+     * remote address, so the connection limit applies per host; connections
+     * are handed out most-recently-used first so the idle tail can be evicted.
+     */
+    public static ConnectionProvider connectionProvider(CrawlerProperties.Fetch config) {
+        return ConnectionProvider.builder("crawler")
+                .maxConnections(config.getPoolSizePerHost())
+                .pendingAcquireMaxCount(config.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(config.getPendingAcquireTimeout())
+                .maxIdleTime(config.getMaxIdleTime())
+                .maxLifeTime(config.getMaxLifeTime())
+                .evictInBackground(config.getEvictInterval())
+                .lifo()
                 .build();
     }
     
+    public static HttpClient httpClient(CrawlerProperties.Fetch config, ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) config.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(config.getReadTimeout())
+                .compress(config.isCompression())
+                .keepAlive(true);
+        return config.isHttp2() ? httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11) : httpClient;
+    }
+    
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
@@ -36,12 +70,4 @@ public class CrawlerConfig {
                 .maximumSize(1000));
         return cacheManager;
     }
-    
-    @Bean
-    public BloomFilter<String> urlBloomFilter() {
-        return BloomFilter.create(
-                Funnels.stringFunnel(Charset.defaultCharset()),
-                1000000,
-                0.01);
-    }
 }
\ No newline at end of file
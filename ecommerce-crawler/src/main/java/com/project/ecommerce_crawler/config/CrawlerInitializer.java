@@ -5,32 +5,31 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import com.project.ecommerce_crawler.model.Domain;
 import com.project.ecommerce_crawler.repository.DomainRepository;
+import com.project.ecommerce_crawler.service.CrawlStats;
 
-import java.util.List;
 
 @Component
 public class CrawlerInitializer implements CommandLineRunner {
 
     private final DomainRepository domainRepository;
+    private final CrawlerProperties crawlerProperties;
+    private final CrawlStats crawlStats;
 
-    public CrawlerInitializer(DomainRepository domainRepository) {
+    public CrawlerInitializer(DomainRepository domainRepository, CrawlerProperties crawlerProperties,
+            CrawlStats crawlStats) {
         this.domainRepository = domainRepository;
+        this.crawlerProperties = crawlerProperties;
+        this.crawlStats = crawlStats;
     }
 
     @Override
     public void run(String... args) {
-        List<String> domains = List.of(
-                "https://www.virgio.com/",
-                "https://www.tatacliq.com/",
-                "https://nykaafashion.com/",
-                "https://www.westside.com/"
-        );
-
-        domains.forEach(url -> {
+        crawlerProperties.getSeedDomains().forEach(url -> {
             if (!domainRepository.existsByUrl(url)) {
                 Domain domain = new Domain();
                 domain.setUrl(url);
                 domainRepository.save(domain);
+                crawlStats.recordDomain(domain);
             }
         });
     }
@@ -0,0 +1,230 @@
+package com.project.ecommerce_crawler.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "crawler")
+public class CrawlerProperties {
+    private final Frontier frontier = new Frontier();
+    private final Politeness politeness = new Politeness();
+    private final Persistence persistence = new Persistence();
+    private final Extraction extraction = new Extraction();
+    private final Dedup dedup = new Dedup();
+    private final Normalization normalization = new Normalization();
+    private final Robots robots = new Robots();
+    private final Discovery discovery = new Discovery();
+    private final Recrawl recrawl = new Recrawl();
+    private final Cluster cluster = new Cluster();
+    private final Retry retry = new Retry();
+    private final Fetch fetch = new Fetch();
+    private final Metrics metrics = new Metrics();
+    private final Classifier classifier = new Classifier();
+    private final Export export = new Export();
+    private final Stats stats = new Stats();
+    private final Engine engine = new Engine();
+    private final Priority priority = new Priority();
+    private final Jobs jobs = new Jobs();
+    private List<String> seedDomains = new ArrayList<>(List.of(
+            "https://www.virgio.com/",
+            "https://www.tatacliq.com/",
+            "https://nykaafashion.com/",
+            "https://www.westside.com/"));
+
+    @Data
+    public static class Frontier {
+        private int memoryCapacity = 10000;
+        private int spillBatchSize = 500;
+        private int maxDepth = 20;
+        private int workersPerDomain = 8;
+        private int maxConcurrentDomains = 4;
+        private long pageBudget = 0;
+    }
+
+    @Data
+    public static class Priority {
+        private boolean enabled = true;
+        private double priorWeight = 5.0;
+        private double depthPenalty = 0.1;
+        private int maxPrefixesPerDomain = 10000;
+        private List<String> paginationPatterns = new ArrayList<>(List.of(
+                "[?&](?:page|p|pg|pagenum|start|offset)=\\d+", "/page/\\d+/?$"));
+    }
+
+    @Data
+    public static class Politeness {
+        private double initialRate = 2.0;
+        private double minRate = 0.2;
+        private double maxRate = 10.0;
+        private int burst = 4;
+        private int maxConnectionsPerHost = 4;
+        private double additiveIncrease = 0.05;
+        private double multiplicativeDecrease = 0.5;
+        private double latencyThreshold = 2.0;
+        private int maxRetries = 2;
+        private Duration maxRetryAfter = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Persistence {
+        private int batchSize = 2000;
+        private Duration flushInterval = Duration.ofSeconds(2);
+        private int queueCapacity = 1000;
+        private int productUrlPartitions = 16;
+    }
+
+    @Data
+    public static class Extraction {
+        private int maxLinksPerPage = 5000;
+        private int maxUrlLength = 2048;
+    }
+
+    @Data
+    public static class Dedup {
+        private long initialCapacity = 100000;
+        private int stripes = 16;
+        private String snapshotDir = "data/seen";
+    }
+
+    @Data
+    public static class Robots {
+        private String userAgent = "ecommerce-crawler";
+        private Duration ttl = Duration.ofHours(24);
+        private Duration refreshInterval = Duration.ofHours(6);
+        private Duration unreachableTtl = Duration.ofMinutes(5);
+        private long maxHosts = 10000;
+    }
+
+    @Data
+    public static class Discovery {
+        private Mode mode = Mode.LINKS;
+        private int batchSize = 1000;
+        private int maxSitemaps = 10000;
+
+        public enum Mode {
+            /** Follow links from the homepage only. */
+            LINKS,
+            /** Read the sitemaps listed in robots.txt; follow links only when there are none. */
+            SITEMAP,
+            /** Read sitemaps, then follow links as well. */
+            BOTH
+        }
+    }
+
+    @Data
+    public static class Recrawl {
+        private boolean enabled = true;
+        private Duration initialInterval = Duration.ofDays(1);
+        private Duration minInterval = Duration.ofHours(6);
+        private Duration maxInterval = Duration.ofDays(30);
+        private double changedFactor = 0.5;
+        private double unchangedFactor = 1.5;
+    }
+
+    @Data
+    public static class Cluster {
+        private boolean enabled = false;
+        private String nodeId;
+        private Duration leaseDuration = Duration.ofSeconds(30);
+        private Duration heartbeatInterval = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Retry {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofHours(6);
+    }
+
+    @Data
+    public static class Fetch {
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration readTimeout = Duration.ofSeconds(20);
+        private int poolSizePerHost = 16;
+        private int pendingAcquireMaxCount = 1000;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(60);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInterval = Duration.ofSeconds(30);
+        private boolean http2 = true;
+        private boolean compression = true;
+        private DataSize maxBodySize = DataSize.ofMegabytes(5);
+        private List<String> contentTypes = new ArrayList<>(List.of("text/html", "application/xhtml+xml"));
+    }
+
+    @Data
+    public static class Metrics {
+        private boolean domainTags = true;
+    }
+
+    @Data
+    public static class Stats {
+        private Duration reconcileInterval = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Engine {
+        private Mode mode = Mode.REACTIVE;
+
+        public enum Mode {
+            /** Reactor workers over the WebClient. */
+            REACTIVE,
+            /** One blocking thread per worker over the JDK HTTP client; virtual threads when the JVM has them. */
+            BLOCKING
+        }
+    }
+
+    @Data
+    public static class Jobs {
+        private int maxConcurrent = 2;
+        private Duration progressInterval = Duration.ofSeconds(1);
+        private int historySize = 100;
+    }
+
+    @Data
+    public static class Export {
+        private int pageSize = 1000;
+        private int maxPageSize = 10000;
+        private int fetchSize = 1000;
+    }
+
+    @Data
+    public static class Classifier {
+        private List<String> productPatterns = new ArrayList<>(List.of(
+                "/product/", "/item/", "/p/", "/pr/", "-p-", "/prod/"));
+        private List<String> excludePatterns = new ArrayList<>();
+        private boolean structuredData = true;
+        private long cacheSize = 100000;
+        private Map<String, ClassifierRules> domains = new HashMap<>();
+    }
+
+    @Data
+    public static class ClassifierRules {
+        private List<String> productPatterns = new ArrayList<>();
+        private List<String> excludePatterns = new ArrayList<>();
+    }
+
+    @Data
+    public static class Normalization {
+        private List<String> stripParams = new ArrayList<>(List.of(
+                "utm_*", "gclid", "fbclid", "msclkid", "mc_cid", "mc_eid", "_ga", "ref", "ref_",
+                "sessionid", "session_id", "sid", "jsessionid", "phpsessid",
+                "sort", "sortby", "sort_by", "order", "orderby", "filter", "filters", "view"));
+        private Map<String, DomainRules> domains = new HashMap<>();
+    }
+
+    @Data
+    public static class DomainRules {
+        private List<String> stripParams = new ArrayList<>();
+        private List<String> keepParams = new ArrayList<>();
+        private String productIdPattern;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.project.ecommerce_crawler.config;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.ecommerce_crawler.model.ProductUrl;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lays out {@code product_url} on PostgreSQL as a table hash-partitioned by
+ * {@code domain_id} into {@code crawler.persistence.product-url-partitions}
+ * partitions, keyed by {@code (domain_id, id)} and unique on
+ * {@code (domain_id, url_hash)}, so that existence checks are index lookups
+ * and per-domain reads touch one partition. Runs before Hibernate so that
+ * schema update finds the partitioned table instead of creating a plain one.
+ *
+ * <p>An existing unpartitioned table, with absolute URLs in a {@code url}
+ * column, is migrated in one transaction: every URL is normalized and
+ * fingerprinted the way the crawler writes them, rows are copied with the
+ * normalized URL made relative to their domain's origin (keeping the oldest
+ * row of any duplicates) and the old table is dropped.
+ * The partition count is fixed once the table exists. Other databases keep
+ * the schema Hibernate generates.
+ */
+@Slf4j
+@Component
+public class ProductUrlSchema implements InitializingBean {
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CrawlerProperties crawlerProperties;
+    private final UrlNormalizer urlNormalizer;
+
+    public ProductUrlSchema(DataSource dataSource, CrawlerProperties crawlerProperties, UrlNormalizer urlNormalizer) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.crawlerProperties = crawlerProperties;
+        this.urlNormalizer = urlNormalizer;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        String database = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                DatabaseMetaData::getDatabaseProductName);
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        List<String> kind = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('product_url')", String.class);
+        if (!kind.isEmpty() && "p".equals(kind.get(0))) {
+            return;
+        }
+        boolean legacy = !kind.isEmpty();
+        int partitions = crawlerProperties.getPersistence().getProductUrlPartitions();
+        transactionTemplate.executeWithoutResult(status -> create(legacy, partitions));
+    }
+
+    private void create(boolean legacy, int partitions) {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS product_url_seq");
+        if (legacy) {
+            jdbcTemplate.execute("ALTER TABLE product_url RENAME TO product_url_legacy");
+        }
+        jdbcTemplate.execute("CREATE TABLE product_url (id BIGINT NOT NULL, domain_id BIGINT NOT NULL, "
+                + "url_hash BIGINT NOT NULL, path VARCHAR(2048) NOT NULL, discovered_at TIMESTAMP(6)) "
+                + "PARTITION BY HASH (domain_id)");
+        for (int i = 0; i < partitions; i++) {
+            jdbcTemplate.execute("CREATE TABLE product_url_p" + i + " PARTITION OF product_url "
+                    + "FOR VALUES WITH (MODULUS " + partitions + ", REMAINDER " + i + ")");
+        }
+        int migrated = legacy ? migrate() : 0;
+        // Indexes are built after the copy, which is faster than maintaining them row by row.
+        jdbcTemplate.execute("ALTER TABLE product_url ADD CONSTRAINT pk_product_url PRIMARY KEY (domain_id, id)");
+        jdbcTemplate.execute("ALTER TABLE product_url ADD CONSTRAINT uk_product_url_domain_url_hash "
+                + "UNIQUE (domain_id, url_hash)");
+        if (legacy) {
+            log.info("Migrated {} product URLs into {} partitions", migrated, partitions);
+        }
+    }
+
+    private int migrate() {
+        normalizeLegacyUrls();
+        int migrated = jdbcTemplate.update("""
+                INSERT INTO product_url (id, domain_id, url_hash, path, discovered_at)
+                SELECT DISTINCT ON (domain_id, url_hash) id, domain_id, url_hash, path, discovered_at
+                FROM product_url_legacy
+                ORDER BY domain_id, url_hash, id
+                """);
+        jdbcTemplate.execute("SELECT setval('product_url_seq', GREATEST((SELECT last_value FROM product_url_seq), "
+                + "(SELECT COALESCE(MAX(id), 1) FROM product_url)))");
+        jdbcTemplate.execute("DROP TABLE product_url_legacy");
+        return migrated;
+    }
+
+    /**
+     * Computes the hash and relative path of every legacy row with the
+     * normalizer and fingerprint the crawler writes with, so that rows stored
+     * before normalization or fingerprinting changed still match the URLs
+     * found by later crawls. Done here rather than in SQL for that reason.
+     */
+    private void normalizeLegacyUrls() {
+        jdbcTemplate.execute("ALTER TABLE product_url_legacy ADD COLUMN IF NOT EXISTS url_hash BIGINT");
+        jdbcTemplate.execute("ALTER TABLE product_url_legacy ADD COLUMN IF NOT EXISTS path VARCHAR(2048)");
+        List<Object[]> batch = new ArrayList<>(BACKFILL_BATCH_SIZE);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT l.id, l.url, d.url FROM product_url_legacy l LEFT JOIN domain d ON d.id = l.domain_id");
+            statement.setFetchSize(BACKFILL_BATCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            String url = resultSet.getString(2);
+            String domainUrl = resultSet.getString(3);
+            String normalized = urlNormalizer.normalize(url);
+            String canonical = normalized == null ? url : normalized;
+            String path = domainUrl == null ? canonical : ProductUrl.relativize(domainUrl, canonical);
+            batch.add(new Object[] { urlNormalizer.fingerprint(canonical), path, resultSet.getLong(1) });
+            if (batch.size() == BACKFILL_BATCH_SIZE) {
+                updateLegacyRows(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            updateLegacyRows(batch);
+        }
+    }
+
+    private void updateLegacyRows(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("UPDATE product_url_legacy SET url_hash = ?, path = ? WHERE id = ?", batch);
+    }
+
+    /**
+     * Makes the entity manager factory wait for the layout above.
+     */
+    @Component
+    static class EntityManagerFactoryDependsOn extends EntityManagerFactoryDependsOnPostProcessor {
+        EntityManagerFactoryDependsOn() {
+            super(ProductUrlSchema.class);
+        }
+    }
+}
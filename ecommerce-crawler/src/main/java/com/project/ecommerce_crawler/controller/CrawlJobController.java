@@ -0,0 +1,83 @@
+package com.project.ecommerce_crawler.controller;
+
+import java.net.URI;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.project.ecommerce_crawler.service.CrawlJobService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/crawler/jobs")
+@RequiredArgsConstructor
+public class CrawlJobController {
+    private final CrawlJobService crawlJobService;
+
+    @PostMapping
+    public ResponseEntity<Object> submitJob(@RequestBody CrawlJobService.Submission submission) {
+        CrawlJobService.Submitted submitted;
+        try {
+            submitted = crawlJobService.submit(submission);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+        if (!submitted.created()) {
+            return ResponseEntity.ok(submitted.job());
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/crawler/jobs/" + submitted.job().id()))
+                .body(submitted.job());
+    }
+
+    @GetMapping
+    public ResponseEntity<List<CrawlJobService.JobSnapshot>> getJobs() {
+        return ResponseEntity.ok(crawlJobService.jobs());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<CrawlJobService.JobSnapshot> getJob(@PathVariable long id) {
+        CrawlJobService.JobSnapshot job = crawlJobService.job(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<CrawlJobService.JobSnapshot> cancelJob(@PathVariable long id) {
+        CrawlJobService.JobSnapshot job = crawlJobService.cancel(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job);
+    }
+
+    @GetMapping(path = "/{id}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<CrawlJobService.JobSnapshot>>> streamProgress(@PathVariable long id) {
+        Flux<CrawlJobService.JobSnapshot> progress = crawlJobService.progress(id);
+        if (progress == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(progress.map(job -> ServerSentEvent.builder(job)
+                .event(job.state().isFinished() ? "finished" : "progress")
+                .build()));
+    }
+
+    @GetMapping(path = "/{id}/progress", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<CrawlJobService.JobSnapshot>> streamProgressAsNdjson(@PathVariable long id) {
+        Flux<CrawlJobService.JobSnapshot> progress = crawlJobService.progress(id);
+        return progress == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(progress);
+    }
+}
@@ -1,23 +1,29 @@
 package com.project.ecommerce_crawler.controller;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.project.ecommerce_crawler.model.CrawlStatus;
 import com.project.ecommerce_crawler.model.Domain;
-import com.project.ecommerce_crawler.model.ProductUrl;
 import com.project.ecommerce_crawler.repository.DomainRepository;
-import com.project.ecommerce_crawler.repository.ProductUrlRepository;
+import com.project.ecommerce_crawler.service.CrawlStats;
 import com.project.ecommerce_crawler.service.CrawlerScheduler;
+import com.project.ecommerce_crawler.service.ProductUrlExporter;
 
 import lombok.RequiredArgsConstructor;
 
@@ -27,7 +33,8 @@ import lombok.RequiredArgsConstructor;
 public class CrawlerController {
     private final CrawlerScheduler crawlerScheduler;
     private final DomainRepository domainRepository;
-    private final ProductUrlRepository productUrlRepository;
+    private final CrawlStats crawlStats;
+    private final ProductUrlExporter productUrlExporter;
     
     @PostMapping("/init")
     public ResponseEntity<String> initializeCrawler(@RequestBody List<String> domains) {
@@ -47,21 +54,49 @@ public class CrawlerController {
     }
     
     @GetMapping("/products/{domainId}")
-    public ResponseEntity<List<ProductUrl>> getProductUrls(@PathVariable Long domainId) {
-        return domainRepository.findById(domainId)
-                .map(domain -> ResponseEntity.ok(productUrlRepository.findByDomain(domain)))
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProductUrlExporter.Page> getProductUrls(@PathVariable Long domainId,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        if (!domainRepository.existsById(domainId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(productUrlExporter.page(domainId, since, after, limit));
+    }
+    
+    @GetMapping("/products/{domainId}/export")
+    public ResponseEntity<StreamingResponseBody> exportProductUrls(@PathVariable Long domainId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        ProductUrlExporter.Format exportFormat;
+        try {
+            exportFormat = ProductUrlExporter.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!domainRepository.existsById(domainId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"product-urls-" + domainId + "."
+                        + format.toLowerCase(Locale.ROOT) + "\"")
+                .body(out -> productUrlExporter.export(domainId, since, after, exportFormat, out));
     }
     
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getCrawlerStatus() {
-        Map<String, Object> status = new HashMap<>();
-        status.put("totalDomains", domainRepository.count());
-        status.put("completedDomains", domainRepository.countByStatus(CrawlStatus.COMPLETED));
-        status.put("pendingDomains", domainRepository.countByStatus(CrawlStatus.PENDING));
-        status.put("failedDomains", domainRepository.countByStatus(CrawlStatus.FAILED));
-        status.put("inProgressDomains", domainRepository.countByStatus(CrawlStatus.IN_PROGRESS));
-        status.put("totalProductUrls", productUrlRepository.count());
+        CrawlStats.Snapshot snapshot = crawlStats.snapshot();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("totalDomains", snapshot.totalDomains());
+        status.put("completedDomains", snapshot.domainsByStatus().get(CrawlStatus.COMPLETED));
+        status.put("pendingDomains", snapshot.domainsByStatus().get(CrawlStatus.PENDING));
+        status.put("failedDomains", snapshot.domainsByStatus().get(CrawlStatus.FAILED));
+        status.put("inProgressDomains", snapshot.domainsByStatus().get(CrawlStatus.IN_PROGRESS));
+        status.put("totalProductUrls", snapshot.totalProductUrls());
+        status.put("reconciledAt", snapshot.reconciledAt());
+        status.put("domains", snapshot.domains());
 
         return ResponseEntity.ok(status);
     }
@@ -0,0 +1,74 @@
+package com.project.ecommerce_crawler.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_crawled_page_domain_url_hash", columnNames = { "domain_id", "url_hash" }),
+        indexes = {
+                @Index(name = "idx_crawled_page_domain_parent", columnList = "domain_id, parent_hash"),
+                @Index(name = "idx_crawled_page_domain_status", columnList = "domain_id, status")
+        })
+public class CrawledPage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "crawled_page_seq")
+    @SequenceGenerator(name = "crawled_page_seq", sequenceName = "crawled_page_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "domain_id", nullable = false)
+    private Long domainId;
+
+    @Column(name = "url_hash", nullable = false)
+    private long urlHash;
+
+    @Column(nullable = false, length = 2048)
+    private String url;
+
+    @Column(name = "parent_hash")
+    private Long parentHash;
+
+    @ColumnDefault("0")
+    private int depth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private PageStatus status;
+
+    @ColumnDefault("0")
+    private int attempts;
+
+    @Column(length = 128)
+    private String errorClass;
+
+    @Column(length = 512)
+    private String etag;
+
+    @Column(length = 64)
+    private String lastModified;
+
+    private Long contentHash;
+
+    private LocalDateTime fetchedAt;
+
+    private LocalDateTime lastChangedAt;
+
+    private LocalDateTime nextFetchAt;
+
+    private long recrawlIntervalSeconds;
+
+}
@@ -4,6 +4,8 @@ import lombok.Data;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -27,4 +29,10 @@ public class Domain {
     
     private LocalDateTime lastCrawledAt;
     
+    private LocalDateTime crawlStartedAt;
+    
+    /** Pages that still failed when the last crawl finished; the next run retries them. */
+    @ColumnDefault("0")
+    private int failedPages;
+    
 }
@@ -0,0 +1,23 @@
+package com.project.ecommerce_crawler.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+@Data
+@Entity
+public class DomainLease {
+    @Id
+    @Column(name = "domain_id")
+    private Long domainId;
+
+    @Column(nullable = false, length = 128)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+}
@@ -0,0 +1,35 @@
+package com.project.ecommerce_crawler.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(indexes = @Index(name = "idx_frontier_entry_domain_priority", columnList = "domain_id, priority"))
+public class FrontierEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "frontier_entry_seq")
+    @SequenceGenerator(name = "frontier_entry_seq", sequenceName = "frontier_entry_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(name = "domain_id", nullable = false)
+    private Long domainId;
+
+    @Column(nullable = false, length = 2048)
+    private String url;
+
+    private int depth;
+
+    private double priority;
+
+    @Column(name = "parent_hash")
+    private Long parentHash;
+
+}
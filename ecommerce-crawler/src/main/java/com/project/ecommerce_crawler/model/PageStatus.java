@@ -0,0 +1,8 @@
+package com.project.ecommerce_crawler.model;
+
+public enum PageStatus {
+    QUEUED,
+    FETCHED,
+    FAILED,
+    SKIPPED
+}
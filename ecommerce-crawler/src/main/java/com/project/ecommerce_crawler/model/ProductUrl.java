@@ -4,27 +4,99 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
+/**
+ * A product page found on a domain. The URL is stored relative to the
+ * domain's origin, as path and query, when it shares that origin, and whole
+ * otherwise; {@link #getUrl()} and {@link #getPath()} convert between the
+ * two. On PostgreSQL the table is hash-partitioned by domain (see
+ * {@code ProductUrlSchema}).
+ */
 @Data
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_product_url_domain_url_hash", columnNames = { "domain_id", "url_hash" }))
 public class ProductUrl {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_url_seq")
+    @SequenceGenerator(name = "product_url_seq", sequenceName = "product_url_seq", allocationSize = 1)
     private Long id;
-    
-    @Column(nullable = false)
-    private String url;
-    
-    @ManyToOne
+
+    @Column(nullable = false, length = 2048)
+    private String path;
+
+    @Column(name = "url_hash", nullable = false)
+    private Long urlHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "domain_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Domain domain;
-    
+
     private LocalDateTime discoveredAt;
 
-}
\ No newline at end of file
+    @Transient
+    private String url;
+
+    public String getUrl() {
+        if (url == null && path != null && domain != null) {
+            url = resolve(domain.getUrl(), path);
+        }
+        return url;
+    }
+
+    public String getPath() {
+        if (path == null && url != null && domain != null) {
+            path = relativize(domain.getUrl(), url);
+        }
+        return path;
+    }
+
+    @PrePersist
+    void relativizeUrl() {
+        getPath();
+    }
+
+    /**
+     * Scheme and authority of a URL, e.g. {@code https://www.example.com}.
+     */
+    public static String origin(String url) {
+        int authority = url.indexOf("://");
+        if (authority < 0) {
+            return url;
+        }
+        for (int i = authority + 3; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                return url.substring(0, i);
+            }
+        }
+        return url;
+    }
+
+    public static String relativize(String domainUrl, String url) {
+        String origin = origin(domainUrl);
+        return url.length() > origin.length() && url.startsWith(origin) && url.charAt(origin.length()) == '/'
+                ? url.substring(origin.length())
+                : url;
+    }
+
+    public static String resolve(String domainUrl, String path) {
+        return path.startsWith("/") ? origin(domainUrl) + path : path;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.project.ecommerce_crawler.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.project.ecommerce_crawler.model.CrawledPage;
+
+public interface CrawledPageRepository extends JpaRepository<CrawledPage, Long> {
+    Optional<CrawledPage> findByDomainIdAndUrlHash(Long domainId, long urlHash);
+
+    @Query("SELECT p.url FROM CrawledPage p WHERE p.domainId = :domainId AND p.parentHash = :parentHash")
+    List<String> findUrlsByDomainIdAndParentHash(Long domainId, Long parentHash);
+}
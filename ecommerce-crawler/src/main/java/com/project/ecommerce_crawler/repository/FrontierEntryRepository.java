@@ -0,0 +1,22 @@
+package com.project.ecommerce_crawler.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.ecommerce_crawler.model.FrontierEntry;
+
+public interface FrontierEntryRepository extends JpaRepository<FrontierEntry, Long> {
+    List<FrontierEntry> findByDomainIdOrderByPriorityDescIdAsc(Long domainId, Pageable pageable);
+
+    boolean existsByDomainId(Long domainId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM FrontierEntry e WHERE e.domainId = :domainId")
+    int deleteByDomainId(Long domainId);
+}
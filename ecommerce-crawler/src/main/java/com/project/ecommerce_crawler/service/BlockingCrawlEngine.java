@@ -0,0 +1,278 @@
+package com.project.ecommerce_crawler.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawledPage;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.FrontierEntry;
+import com.project.ecommerce_crawler.model.ProductUrl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Thread-per-worker execution for {@code crawler.engine.mode=BLOCKING}. Each
+ * frontier worker of a domain is a thread that polls, fetches with the JDK
+ * HTTP client and parses in plain blocking calls; the host's politeness budget
+ * is waited for on the same thread. Threads are virtual when the JVM provides
+ * {@code Executors.newVirtualThreadPerTaskExecutor} (Java 21+) and pooled
+ * platform threads otherwise.
+ *
+ * <p>The workers of a domain run in one scope: the crawl of the domain ends
+ * when all of them have returned, and the first worker to fail cancels the
+ * others before the failure is reported. Page bookkeeping (checkpoints,
+ * recrawl state, persistence) is shared with the reactive engine.
+ */
+@Slf4j
+@Service
+public class BlockingCrawlEngine {
+    private static final long FRONTIER_IDLE_MILLIS = 100;
+    private static final ThreadLocal<Boolean> WORKER = new ThreadLocal<>();
+
+    private final CrawlFrontier crawlFrontier;
+    private final HostPolitenessScheduler hostPolitenessScheduler;
+    private final LinkExtractor linkExtractor;
+    private final RecrawlTracker recrawlTracker;
+    private final FetchLimits fetchLimits;
+    private final CrawlerProperties crawlerProperties;
+    private final ExecutorService executor;
+    private final Scheduler scheduler;
+    private final HttpClient httpClient;
+
+    public BlockingCrawlEngine(CrawlFrontier crawlFrontier, HostPolitenessScheduler hostPolitenessScheduler,
+            LinkExtractor linkExtractor, RecrawlTracker recrawlTracker, FetchLimits fetchLimits,
+            CrawlerProperties crawlerProperties) {
+        this.crawlFrontier = crawlFrontier;
+        this.hostPolitenessScheduler = hostPolitenessScheduler;
+        this.linkExtractor = linkExtractor;
+        this.recrawlTracker = recrawlTracker;
+        this.fetchLimits = fetchLimits;
+        this.crawlerProperties = crawlerProperties;
+        if (crawlerProperties.getEngine().getMode() != CrawlerProperties.Engine.Mode.BLOCKING) {
+            this.executor = null;
+            this.scheduler = null;
+            this.httpClient = null;
+            return;
+        }
+        this.executor = newExecutor();
+        this.scheduler = Schedulers.fromExecutorService(executor, "crawl-engine");
+        CrawlerProperties.Fetch fetch = crawlerProperties.getFetch();
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(fetch.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .version(fetch.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /**
+     * Whether the calling thread is one of the workers of {@link #drain}, which
+     * may block.
+     */
+    public boolean isWorkerThread() {
+        return WORKER.get() != null;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    /**
+     * Runs {@code workers} threads that crawl the domain's frontier until it is
+     * exhausted, emitting the product URLs they find.
+     */
+    public Flux<ProductUrl> drain(Domain domain, int workers, Function<FrontierEntry, Flux<ProductUrl>> crawlPage) {
+        return Flux.create(sink -> {
+            DomainScope scope = new DomainScope(sink, workers);
+            sink.onCancel(scope::cancel);
+            for (int i = 0; i < workers; i++) {
+                scope.fork(() -> {
+                    while (!scope.isCancelled() && !crawlFrontier.isExhausted(domain)) {
+                        FrontierEntry entry = crawlFrontier.poll(domain);
+                        if (entry == null) {
+                            Thread.sleep(FRONTIER_IDLE_MILLIS);
+                            continue;
+                        }
+                        crawlPage.apply(entry).doOnNext(sink::next).blockLast();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Fetches the page on the subscribing worker, which waits for the host's
+     * politeness budget itself. Retries are resubscribed from Reactor's timer
+     * threads, which must not block, so those fetches move to an engine thread.
+     */
+    public Mono<PageFetch> fetch(Domain domain, String url, CrawledPage crawledPage,
+            CrawlMetrics.DomainMeters meters) {
+        return Mono.defer(() -> {
+            Mono<PageFetch> fetch = Mono.fromCallable(() -> hostPolitenessScheduler.execute(url,
+                    () -> send(domain, url, crawledPage, meters)));
+            return isWorkerThread() ? fetch : fetch.subscribeOn(scheduler);
+        });
+    }
+
+    private PageFetch send(Domain domain, String url, CrawledPage crawledPage, CrawlMetrics.DomainMeters meters)
+            throws IOException, InterruptedException {
+        CrawlerProperties.Fetch config = crawlerProperties.getFetch();
+        URI uri = URI.create(url);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(config.getReadTimeout())
+                .header(HttpHeaders.USER_AGENT, crawlerProperties.getRobots().getUserAgent());
+        if (!"https".equalsIgnoreCase(uri.getScheme())) {
+            // HTTP/2 only over TLS, as with the WebClient; no h2c upgrade attempts.
+            request.version(HttpClient.Version.HTTP_1_1);
+        }
+        if (config.isCompression()) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        HttpHeaders conditional = new HttpHeaders();
+        recrawlTracker.addConditionalHeaders(conditional, crawledPage);
+        conditional.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request.GET().build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                int status = response.statusCode();
+                meters.recordStatus(status);
+                HttpHeaders headers = new HttpHeaders();
+                response.headers().map().forEach(headers::addAll);
+                if (status == HttpStatus.NOT_MODIFIED.value()) {
+                    return PageFetch.NOT_MODIFIED;
+                }
+                if (status < 200 || status >= 300) {
+                    HttpStatus known = HttpStatus.resolve(status);
+                    throw WebClientResponseException.create(status, known == null ? "" : known.getReasonPhrase(),
+                            headers, new byte[0], null);
+                }
+                if (!fetchLimits.accepts(headers)) {
+                    return PageFetch.UNSUPPORTED;
+                }
+                LinkExtractor.Session session = linkExtractor.open(domain);
+                InputStream decoded = "gzip".equalsIgnoreCase(headers.getFirst(HttpHeaders.CONTENT_ENCODING))
+                        ? new GZIPInputStream(body)
+                        : body;
+                fetchLimits.read(decoded, (chunk, length) -> {
+                    meters.recordBytes(length);
+                    session.feed(chunk, length);
+                });
+                PageLinks links = session.finish();
+                meters.recordParse(session.parseNanos(), links.navigationLinks().size(), links.productUrls().size());
+                return new PageFetch(PageFetch.Outcome.FETCHED, links, headers.getETag(),
+                        headers.getFirst(HttpHeaders.LAST_MODIFIED), session.contentHash());
+            }
+        } catch (IOException e) {
+            meters.recordError();
+            throw e;
+        } finally {
+            meters.recordFetch(System.nanoTime() - start);
+        }
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("Blocking crawl engine running on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            log.info("Virtual threads need Java 21; blocking crawl engine running on platform threads");
+            AtomicInteger threads = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "crawl-worker-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    private final class DomainScope {
+        private final FluxSink<ProductUrl> sink;
+        private final AtomicInteger running;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final List<Future<?>> workers = new CopyOnWriteArrayList<>();
+        private volatile boolean cancelled;
+
+        private DomainScope(FluxSink<ProductUrl> sink, int workers) {
+            this.sink = sink;
+            this.running = new AtomicInteger(workers);
+        }
+
+        private void fork(Task task) {
+            workers.add(executor.submit(() -> {
+                WORKER.set(Boolean.TRUE);
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    if (failure.compareAndSet(null, e)) {
+                        cancel();
+                    }
+                } finally {
+                    WORKER.remove();
+                    if (running.decrementAndGet() == 0) {
+                        join();
+                    }
+                }
+            }));
+        }
+
+        private boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            workers.forEach(worker -> worker.cancel(true));
+        }
+
+        private void join() {
+            Throwable error = failure.get();
+            if (error == null) {
+                sink.complete();
+            } else {
+                sink.error(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.project.ecommerce_crawler.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Splits domains between crawler nodes sharing one database. Every node
+ * heartbeats into {@code crawler_node}; each domain's owner is chosen by
+ * rendezvous hashing over the live nodes and guarded by a row in
+ * {@code domain_lease} that is claimed and renewed with conditional updates.
+ * When a node joins, the domains that now hash to it are revoked from their
+ * current owner, which stops crawling them and spills their frontier to the
+ * database for the new owner to resume; when a node dies its leases expire.
+ * With {@code crawler.cluster.enabled=false} every domain is owned locally.
+ */
+@Slf4j
+@Service
+public class ClusterCoordinator {
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CrawlerProperties crawlerProperties;
+    private final String nodeId;
+    private final Map<Long, Sinks.Empty<Void>> held = new ConcurrentHashMap<>();
+    private volatile List<String> liveNodes;
+
+    public ClusterCoordinator(JdbcTemplate jdbcTemplate, CrawlerProperties crawlerProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.crawlerProperties = crawlerProperties;
+        String configured = crawlerProperties.getCluster().getNodeId();
+        this.nodeId = configured != null && !configured.isBlank() ? configured : generateNodeId();
+        this.liveNodes = List.of(nodeId);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public boolean isEnabled() {
+        return crawlerProperties.getCluster().isEnabled();
+    }
+
+    public List<String> liveNodes() {
+        return liveNodes;
+    }
+
+    public boolean tryAcquire(Domain domain) {
+        if (!isEnabled()) {
+            return true;
+        }
+        Long domainId = domain.getId();
+        if (held.containsKey(domainId) || !nodeId.equals(preferredOwner(domainId))) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp expiresAt = Timestamp.valueOf(now.plus(crawlerProperties.getCluster().getLeaseDuration()));
+        int claimed = jdbcTemplate.update("INSERT INTO domain_lease (domain_id, owner, expires_at) VALUES (?, ?, ?) "
+                + "ON CONFLICT DO NOTHING", domainId, nodeId, expiresAt);
+        if (claimed == 0) {
+            claimed = jdbcTemplate.update("UPDATE domain_lease SET owner = ?, expires_at = ? "
+                    + "WHERE domain_id = ? AND (owner = ? OR expires_at < ?)",
+                    nodeId, expiresAt, domainId, nodeId, Timestamp.valueOf(now));
+        }
+        if (claimed == 0) {
+            return false;
+        }
+        held.put(domainId, Sinks.empty());
+        log.info("Node {} acquired domain {}", nodeId, domain.getUrl());
+        return true;
+    }
+
+    public Mono<Void> revoked(Domain domain) {
+        Sinks.Empty<Void> revocation = held.get(domain.getId());
+        return revocation == null ? Mono.never() : revocation.asMono();
+    }
+
+    public void release(Domain domain) {
+        if (held.remove(domain.getId()) != null) {
+            jdbcTemplate.update("DELETE FROM domain_lease WHERE domain_id = ? AND owner = ?", domain.getId(), nodeId);
+        }
+    }
+
+    public boolean holds(Domain domain) {
+        return held.containsKey(domain.getId());
+    }
+
+    /**
+     * Records this node as alive, renews its leases and revokes the ones it
+     * lost or that now hash to another node.
+     */
+    public synchronized void heartbeat() {
+        if (!isEnabled()) {
+            return;
+        }
+        CrawlerProperties.Cluster config = crawlerProperties.getCluster();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        if (jdbcTemplate.update("UPDATE crawler_node SET heartbeat_at = ? WHERE node_id = ?", nowTimestamp, nodeId) == 0) {
+            jdbcTemplate.update("INSERT INTO crawler_node (node_id, heartbeat_at) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                    nodeId, nowTimestamp);
+        }
+        Timestamp cutoff = Timestamp.valueOf(now.minus(config.getLeaseDuration()));
+        List<String> nodes = new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT node_id FROM crawler_node WHERE heartbeat_at >= ?", String.class, cutoff));
+        if (!nodes.contains(nodeId)) {
+            nodes.add(nodeId);
+        }
+        liveNodes = List.copyOf(nodes);
+
+        Timestamp expiresAt = Timestamp.valueOf(now.plus(config.getLeaseDuration()));
+        for (Long domainId : List.copyOf(held.keySet())) {
+            int renewed = jdbcTemplate.update("UPDATE domain_lease SET expires_at = ? WHERE domain_id = ? AND owner = ?",
+                    expiresAt, domainId, nodeId);
+            if (renewed == 0) {
+                revoke(domainId, "lease lost");
+            } else if (!nodeId.equals(preferredOwner(domainId))) {
+                revoke(domainId, "rebalanced to " + preferredOwner(domainId));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!isEnabled()) {
+            return;
+        }
+        List.copyOf(held.keySet()).forEach(domainId -> revoke(domainId, "node shutting down"));
+        jdbcTemplate.update("DELETE FROM crawler_node WHERE node_id = ?", nodeId);
+    }
+
+    private void revoke(Long domainId, String reason) {
+        Sinks.Empty<Void> revocation = held.get(domainId);
+        if (revocation != null) {
+            log.info("Node {} giving up domain {}: {}", nodeId, domainId, reason);
+            revocation.tryEmitEmpty();
+        }
+    }
+
+    private String preferredOwner(Long domainId) {
+        String owner = null;
+        long best = Long.MIN_VALUE;
+        for (String node : liveNodes) {
+            long score = HASH.newHasher()
+                    .putString(node, StandardCharsets.UTF_8)
+                    .putLong(domainId)
+                    .hash()
+                    .asLong();
+            if (owner == null || score > best) {
+                owner = node;
+                best = score;
+            }
+        }
+        return owner;
+    }
+
+    private static String generateNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,203 @@
+package com.project.ecommerce_crawler.service;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawledPage;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.PageStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * Per-URL crawl state that lets an interrupted or partly failed crawl carry on
+ * where it stopped. Every URL put on the frontier is recorded as
+ * {@link PageStatus#QUEUED} in {@code crawled_page} through the batched
+ * {@link CrawledPageWriter} and settles as FETCHED, FAILED or SKIPPED once
+ * processed; the next run of the domain re-queues what is still QUEUED plus
+ * failed URLs whose back-off has elapsed. Transient failures are retried in
+ * place with bounded exponential back-off and then deferred across runs on
+ * the same schedule.
+ */
+@Slf4j
+@Service
+public class CrawlCheckpoint {
+    private static final String PENDING_SQL = "SELECT id, url, url_hash, depth, parent_hash FROM crawled_page "
+            + "WHERE domain_id = ? AND id > ? AND (status = 'QUEUED' OR (status = 'FAILED' AND next_fetch_at <= ?)) "
+            + "ORDER BY id LIMIT ?";
+    private static final int MAX_ERROR_CLASS_LENGTH = 128;
+
+    public record PendingUrl(long id, String url, long urlHash, int depth, Long parentHash) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CrawlerProperties crawlerProperties;
+    private final MeterRegistry meterRegistry;
+    private final Counter retryCounter;
+    private final Map<Long, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+    public CrawlCheckpoint(JdbcTemplate jdbcTemplate, CrawlerProperties crawlerProperties,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.crawlerProperties = crawlerProperties;
+        this.meterRegistry = meterRegistry;
+        this.retryCounter = Counter.builder("crawler.fetch.retries")
+                .description("Page fetches retried after a transient failure")
+                .register(meterRegistry);
+    }
+
+    public void open(Domain domain) {
+        failures.put(domain.getId(), new AtomicInteger());
+    }
+
+    public int failures(Domain domain) {
+        AtomicInteger count = failures.get(domain.getId());
+        return count == null ? 0 : count.get();
+    }
+
+    public void close(Domain domain) {
+        failures.remove(domain.getId());
+    }
+
+    public CrawledPage queued(Domain domain, String url, long fingerprint, int depth, Long parentHash) {
+        CrawledPage page = new CrawledPage();
+        page.setDomainId(domain.getId());
+        page.setUrlHash(fingerprint);
+        page.setUrl(url);
+        page.setParentHash(parentHash);
+        page.setDepth(depth);
+        page.setStatus(PageStatus.QUEUED);
+        return page;
+    }
+
+    public Flux<PendingUrl> pending(Domain domain) {
+        int batchSize = crawlerProperties.getPersistence().getBatchSize();
+        LocalDateTime now = LocalDateTime.now();
+        return pendingBatch(domain.getId(), 0L, now, batchSize)
+                .expand(batch -> batch.size() < batchSize
+                        ? Mono.empty()
+                        : pendingBatch(domain.getId(), batch.get(batch.size() - 1).id(), now, batchSize))
+                .flatMapIterable(batch -> batch);
+    }
+
+    /**
+     * Whether the page still has to be fetched in the current run: it was not
+     * already fetched since the run started and is not backing off after a
+     * failure.
+     */
+    public boolean isPending(Domain domain, CrawledPage page) {
+        if (page.getAttempts() > 0) {
+            return page.getNextFetchAt() == null || !LocalDateTime.now().isBefore(page.getNextFetchAt());
+        }
+        LocalDateTime startedAt = domain.getCrawlStartedAt();
+        return page.getFetchedAt() == null || startedAt == null || page.getFetchedAt().isBefore(startedAt);
+    }
+
+    /**
+     * Restores the status of a queued page that is not fetched this time.
+     * Returns whether the page changed and has to be written.
+     */
+    public boolean settle(CrawledPage page) {
+        if (page.getStatus() != PageStatus.QUEUED) {
+            return false;
+        }
+        page.setStatus(page.getAttempts() > 0 ? PageStatus.FAILED : PageStatus.FETCHED);
+        return true;
+    }
+
+    public void recordSkipped(CrawledPage page) {
+        page.setStatus(PageStatus.SKIPPED);
+    }
+
+    public void recordUnsupported(CrawledPage page) {
+        page.setStatus(PageStatus.SKIPPED);
+        page.setErrorClass("UnsupportedContentType");
+        page.setNextFetchAt(LocalDateTime.now().plus(crawlerProperties.getRecrawl().getMaxInterval()));
+    }
+
+    public void recordSuccess(CrawledPage page) {
+        page.setStatus(PageStatus.FETCHED);
+        page.setAttempts(0);
+        page.setErrorClass(null);
+    }
+
+    public void recordFailure(Domain domain, CrawledPage page, Throwable error, int attempts) {
+        boolean retryable = isTransient(error);
+        String errorClass = errorClass(error);
+        page.setStatus(PageStatus.FAILED);
+        page.setAttempts(page.getAttempts() + attempts);
+        page.setErrorClass(errorClass);
+        page.setNextFetchAt(LocalDateTime.now().plus(retryable
+                ? backoff(page.getAttempts())
+                : crawlerProperties.getRecrawl().getMaxInterval()));
+        if (retryable) {
+            failures.computeIfAbsent(domain.getId(), id -> new AtomicInteger()).incrementAndGet();
+        }
+        meterRegistry.counter("crawler.fetch.failures", "error", errorClass).increment();
+        log.debug("Fetching {} failed after {} attempts: {}", page.getUrl(), page.getAttempts(), error.toString());
+    }
+
+    public Retry retry() {
+        CrawlerProperties.Retry config = crawlerProperties.getRetry();
+        return Retry.backoff(Math.max(0, config.getMaxAttempts() - 1), config.getInitialBackoff())
+                .maxBackoff(config.getMaxBackoff())
+                .filter(CrawlCheckpoint::isTransient)
+                .doBeforeRetry(signal -> retryCounter.increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    public Duration backoff(int attempts) {
+        CrawlerProperties.Retry config = crawlerProperties.getRetry();
+        Duration delay = config.getInitialBackoff().multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 30));
+        return delay.compareTo(config.getMaxBackoff()) > 0 ? config.getMaxBackoff() : delay;
+    }
+
+    public static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status >= 500 || status == 408 || status == 429;
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException
+                || error instanceof IOException;
+    }
+
+    public static String errorClass(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return "HTTP_" + response.getStatusCode().value();
+        }
+        Throwable cause = error instanceof WebClientRequestException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        String name = cause.getClass().getSimpleName().isEmpty()
+                ? cause.getClass().getName()
+                : cause.getClass().getSimpleName();
+        return name.length() > MAX_ERROR_CLASS_LENGTH ? name.substring(0, MAX_ERROR_CLASS_LENGTH) : name;
+    }
+
+    private Mono<List<PendingUrl>> pendingBatch(Long domainId, long afterId, LocalDateTime now, int batchSize) {
+        return Mono.fromCallable(() -> jdbcTemplate.query(PENDING_SQL,
+                        (rs, rowNum) -> new PendingUrl(rs.getLong("id"), rs.getString("url"), rs.getLong("url_hash"),
+                                rs.getInt("depth"), rs.getObject("parent_hash", Long.class)),
+                        domainId, afterId, Timestamp.valueOf(now), batchSize))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
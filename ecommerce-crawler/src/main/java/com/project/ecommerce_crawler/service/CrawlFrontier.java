@@ -0,0 +1,351 @@
+package com.project.ecommerce_crawler.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.google.common.collect.MinMaxPriorityQueue;
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.FrontierEntry;
+import com.project.ecommerce_crawler.repository.FrontierEntryRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bounded, per-host crawl frontier. Each host keeps at most
+ * {@code crawler.frontier.memory-capacity} entries in memory; anything beyond
+ * that is spilled to the {@code frontier_entry} table in batches and read back
+ * once the in-memory queue drains, so a crawl runs at a steady footprint and
+ * can pick up where it left off after a restart. Entries are polled highest
+ * priority first: a full in-memory queue gives up its lowest entry to make
+ * room for a better one, and a refill merges overflow and spilled entries by
+ * priority. With {@code crawler.frontier.page-budget} set, a domain's
+ * frontier counts as exhausted once that many entries have been polled in the
+ * current run; what is left stays queued for the next run. A run can also be
+ * given its own budget and deadline, or be stopped, with the same effect.
+ */
+@Service
+public class CrawlFrontier {
+    private static final Comparator<FrontierEntry> PRIORITY_ORDER =
+            Comparator.comparingDouble(FrontierEntry::getPriority).reversed()
+                    .thenComparingInt(FrontierEntry::getDepth);
+
+    private final FrontierEntryRepository frontierEntryRepository;
+    private final CrawlerProperties crawlerProperties;
+    private final Map<Long, HostQueue> queues = new ConcurrentHashMap<>();
+
+    public CrawlFrontier(FrontierEntryRepository frontierEntryRepository, CrawlerProperties crawlerProperties,
+            MeterRegistry meterRegistry) {
+        this.frontierEntryRepository = frontierEntryRepository;
+        this.crawlerProperties = crawlerProperties;
+        Gauge.builder("crawler.fetch.queue.depth", this, CrawlFrontier::totalSize)
+                .description("URLs waiting in the in-memory crawl frontier")
+                .register(meterRegistry);
+    }
+
+    public boolean open(Domain domain) {
+        HostQueue queue = queues.computeIfAbsent(domain.getId(),
+                id -> new HostQueue(frontierEntryRepository.existsByDomainId(id)));
+        synchronized (queue) {
+            return queue.spilled || !queue.memory.isEmpty();
+        }
+    }
+
+    /**
+     * Opens the domain's queue unless it is open already. Returns whether
+     * this call opened it, so that of two callers starting a crawl of the
+     * same domain only one goes ahead.
+     */
+    public boolean claim(Domain domain) {
+        boolean[] claimed = { false };
+        queues.computeIfAbsent(domain.getId(), id -> {
+            claimed[0] = true;
+            return new HostQueue(frontierEntryRepository.existsByDomainId(id));
+        });
+        return claimed[0];
+    }
+
+    /**
+     * Overrides the page budget of the current run and sets a time after
+     * which no more entries are polled; null keeps the configured budget or
+     * sets no deadline.
+     */
+    public void limit(Domain domain, Long pageBudget, LocalDateTime deadline) {
+        HostQueue queue = queue(domain);
+        synchronized (queue) {
+            if (pageBudget != null) {
+                queue.budget = pageBudget;
+            }
+            queue.deadline = deadline;
+        }
+    }
+
+    /**
+     * Stops handing out entries of an open domain; pages in flight finish and
+     * the rest stays queued for the next run.
+     */
+    public boolean stop(Long domainId) {
+        HostQueue queue = queues.get(domainId);
+        if (queue == null) {
+            return false;
+        }
+        synchronized (queue) {
+            queue.stopped = true;
+        }
+        return true;
+    }
+
+    public void close(Domain domain) {
+        HostQueue queue = queues.remove(domain.getId());
+        if (queue != null) {
+            spill(domain.getId(), queue.drainAll());
+        }
+    }
+
+    /**
+     * Drops the spilled entries of an open domain, for callers that rebuild
+     * the queue from the per-page crawl state instead.
+     */
+    public void discardSpilled(Domain domain) {
+        HostQueue queue = queue(domain);
+        synchronized (queue) {
+            if (queue.spilled) {
+                frontierEntryRepository.deleteByDomainId(domain.getId());
+                queue.spilled = false;
+            }
+        }
+    }
+
+    public boolean isActive(Long domainId) {
+        return queues.containsKey(domainId);
+    }
+
+    public boolean accepts(int depth) {
+        return depth <= crawlerProperties.getFrontier().getMaxDepth();
+    }
+
+    public boolean offer(Domain domain, String url, int depth) {
+        return offer(domain, url, depth, null);
+    }
+
+    public boolean offer(Domain domain, String url, int depth, Long parentHash) {
+        return offer(domain, url, depth, parentHash, -depth);
+    }
+
+    public boolean offer(Domain domain, String url, int depth, Long parentHash, double priority) {
+        CrawlerProperties.Frontier config = crawlerProperties.getFrontier();
+        if (!accepts(depth)) {
+            return false;
+        }
+
+        FrontierEntry entry = new FrontierEntry();
+        entry.setDomainId(domain.getId());
+        entry.setUrl(url);
+        entry.setDepth(depth);
+        entry.setPriority(priority);
+        entry.setParentHash(parentHash);
+
+        List<FrontierEntry> overflow = queue(domain).add(entry, config.getMemoryCapacity(), config.getSpillBatchSize());
+        spill(domain.getId(), overflow);
+        return true;
+    }
+
+    public FrontierEntry poll(Domain domain) {
+        HostQueue queue = queue(domain);
+        synchronized (queue) {
+            if (queue.isHalted()) {
+                return null;
+            }
+            FrontierEntry entry = queue.memory.poll();
+            if (entry == null && queue.refill(domain.getId())) {
+                entry = queue.memory.poll();
+            }
+            if (entry != null) {
+                queue.inFlight++;
+                queue.polled++;
+            }
+            return entry;
+        }
+    }
+
+    public void complete(Domain domain) {
+        HostQueue queue = queue(domain);
+        synchronized (queue) {
+            queue.inFlight--;
+        }
+    }
+
+    public boolean isExhausted(Domain domain) {
+        HostQueue queue = queue(domain);
+        synchronized (queue) {
+            boolean drained = queue.isHalted()
+                    || queue.memory.isEmpty() && queue.overflow.isEmpty() && !queue.spilled;
+            return drained && queue.inFlight <= 0;
+        }
+    }
+
+    public boolean isOverBudget(Domain domain) {
+        HostQueue queue = queues.get(domain.getId());
+        if (queue == null) {
+            return false;
+        }
+        synchronized (queue) {
+            return queue.isOverBudget();
+        }
+    }
+
+    /**
+     * Whether the domain's run was stopped or ran out of budget or time.
+     */
+    public boolean isHalted(Domain domain) {
+        HostQueue queue = queues.get(domain.getId());
+        if (queue == null) {
+            return false;
+        }
+        synchronized (queue) {
+            return queue.isHalted();
+        }
+    }
+
+    public int size(Domain domain) {
+        HostQueue queue = queues.get(domain.getId());
+        if (queue == null) {
+            return 0;
+        }
+        synchronized (queue) {
+            return queue.memory.size() + queue.overflow.size();
+        }
+    }
+
+    public int totalSize() {
+        int total = 0;
+        for (HostQueue queue : queues.values()) {
+            synchronized (queue) {
+                total += queue.memory.size() + queue.overflow.size();
+            }
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void persist() {
+        queues.forEach((domainId, queue) -> spill(domainId, queue.drainAll()));
+    }
+
+    private HostQueue queue(Domain domain) {
+        HostQueue queue = queues.get(domain.getId());
+        if (queue == null) {
+            throw new IllegalStateException("Frontier is not open for domain " + domain.getUrl());
+        }
+        return queue;
+    }
+
+    private void spill(Long domainId, List<FrontierEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        entries.forEach(entry -> entry.setId(null));
+        frontierEntryRepository.saveAll(entries);
+        HostQueue queue = queues.get(domainId);
+        if (queue != null) {
+            synchronized (queue) {
+                queue.spilled = true;
+            }
+        }
+    }
+
+    private final class HostQueue {
+        private final MinMaxPriorityQueue<FrontierEntry> memory =
+                MinMaxPriorityQueue.orderedBy(PRIORITY_ORDER).create();
+        private final List<FrontierEntry> overflow = new ArrayList<>();
+        private boolean spilled;
+        private int inFlight;
+        private long polled;
+        private long budget = crawlerProperties.getFrontier().getPageBudget();
+        private LocalDateTime deadline;
+        private boolean stopped;
+
+        private HostQueue(boolean spilled) {
+            this.spilled = spilled;
+        }
+
+        private boolean isOverBudget() {
+            return budget > 0 && polled >= budget
+                    || deadline != null && !LocalDateTime.now().isBefore(deadline);
+        }
+
+        private boolean isHalted() {
+            return stopped || isOverBudget();
+        }
+
+        private synchronized List<FrontierEntry> add(FrontierEntry entry, int capacity, int batchSize) {
+            if (memory.size() < capacity) {
+                memory.add(entry);
+                return List.of();
+            }
+            if (!memory.isEmpty() && PRIORITY_ORDER.compare(entry, memory.peekLast()) < 0) {
+                memory.add(entry);
+                entry = memory.pollLast();
+            }
+            overflow.add(entry);
+            if (overflow.size() < batchSize) {
+                return List.of();
+            }
+            List<FrontierEntry> batch = new ArrayList<>(overflow);
+            overflow.clear();
+            return batch;
+        }
+
+        private boolean refill(Long domainId) {
+            if (!spilled) {
+                if (overflow.isEmpty()) {
+                    return false;
+                }
+                memory.addAll(overflow);
+                overflow.clear();
+                return true;
+            }
+            int batchSize = crawlerProperties.getFrontier().getSpillBatchSize();
+            List<FrontierEntry> batch = frontierEntryRepository.findByDomainIdOrderByPriorityDescIdAsc(
+                    domainId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                spilled = false;
+                return refill(domainId);
+            }
+            frontierEntryRepository.deleteAllInBatch(batch);
+            memory.addAll(batch);
+            // A full batch may leave better entries behind than the lowest of the
+            // overflow, so overflow that ranks below the batch goes to the table.
+            FrontierEntry floor = batch.get(batch.size() - 1);
+            List<FrontierEntry> lower = new ArrayList<>();
+            for (FrontierEntry entry : overflow) {
+                if (batch.size() == batchSize && PRIORITY_ORDER.compare(entry, floor) > 0) {
+                    lower.add(entry);
+                } else {
+                    memory.add(entry);
+                }
+            }
+            overflow.clear();
+            spill(domainId, lower);
+            return true;
+        }
+
+        private synchronized List<FrontierEntry> drainAll() {
+            List<FrontierEntry> entries = new ArrayList<>(memory.size() + overflow.size());
+            entries.addAll(memory);
+            entries.addAll(overflow);
+            memory.clear();
+            overflow.clear();
+            return entries;
+        }
+    }
+}
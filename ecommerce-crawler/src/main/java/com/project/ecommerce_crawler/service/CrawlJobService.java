@@ -0,0 +1,330 @@
+package com.project.ecommerce_crawler.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Service;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawlStatus;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.ProductUrl;
+import com.project.ecommerce_crawler.repository.DomainRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * On-demand crawls of single domains, next to the scheduled crawl. A job
+ * crawls one domain, optionally refreshing a set of its URLs first, within
+ * an optional page budget and deadline. At most
+ * {@code crawler.jobs.max-concurrent} jobs run at a time; the others wait,
+ * highest priority first. Submitting a job for a domain that already has a
+ * waiting or running job returns that job, and a domain is never crawled by
+ * a job and a scheduled run at once. Cancelling a running job stops it from
+ * taking more pages; pages in flight finish and the rest stays queued for the
+ * next run. Jobs live in memory, with the last
+ * {@code crawler.jobs.history-size} finished ones.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CrawlJobService {
+    private static final Comparator<Job> DISPATCH_ORDER = Comparator.<Job>comparingInt(job -> job.priority)
+            .reversed()
+            .thenComparingLong(job -> job.id);
+
+    private final CrawlerScheduler crawlerScheduler;
+    private final DomainRepository domainRepository;
+    private final CrawlFrontier crawlFrontier;
+    private final CrawlStats crawlStats;
+    private final UrlNormalizer urlNormalizer;
+    private final CrawlerProperties crawlerProperties;
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    private final PriorityQueue<Job> waiting = new PriorityQueue<>(DISPATCH_ORDER);
+    private final Deque<Job> finished = new ArrayDeque<>();
+    private int running;
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    /**
+     * @param domainId   domain to crawl
+     * @param domain     URL of the domain to crawl, matched by origin, when no id is given
+     * @param urls       URLs of the domain to fetch first, whether or not they are due for a recrawl;
+     *                   the domain is taken from the first one when neither id nor URL is given
+     * @param priority   higher runs first among waiting jobs; 0 when omitted
+     * @param pageBudget pages to crawl at most; the configured page budget when omitted, 0 for no limit
+     * @param deadline   time after which the job takes no more pages
+     */
+    public record Submission(Long domainId, String domain, List<String> urls, Integer priority, Long pageBudget,
+            LocalDateTime deadline) {
+    }
+
+    /**
+     * @param pagesProcessed  pages fetched, skipped or failed by the job
+     * @param pagesRemaining  pages queued and not processed yet
+     * @param productUrls     product URLs found by the job, new or not
+     */
+    public record JobSnapshot(long id, long domainId, String domainUrl, State state, int priority,
+            List<String> urls, Long pageBudget, LocalDateTime deadline, LocalDateTime submittedAt,
+            LocalDateTime startedAt, LocalDateTime finishedAt, long pagesProcessed, long pagesRemaining,
+            long productUrls, Double pagesPerSecond, String error) {
+    }
+
+    /**
+     * @param created false when the submission was answered with a job already waiting or running
+     */
+    public record Submitted(JobSnapshot job, boolean created) {
+    }
+
+    /**
+     * @throws NoSuchElementException   when the domain is not registered
+     * @throws IllegalArgumentException when the submission is invalid
+     * @throws IllegalStateException    when the domain is being crawled by a scheduled run
+     */
+    public Submitted submit(Submission submission) {
+        List<String> urls = submission.urls() == null ? List.of() : submission.urls();
+        Domain domain = resolve(submission, urls);
+        String origin = ProductUrl.origin(urlNormalizer.normalize(domain.getUrl()));
+        List<String> normalized = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            String canonical = url == null ? null : urlNormalizer.normalize(url);
+            if (canonical == null || !ProductUrl.origin(canonical).equals(origin)) {
+                throw new IllegalArgumentException("URL " + url + " does not belong to " + domain.getUrl());
+            }
+            normalized.add(canonical);
+        }
+        if (submission.pageBudget() != null && submission.pageBudget() < 0) {
+            throw new IllegalArgumentException("Page budget must not be negative");
+        }
+        if (submission.deadline() != null && !submission.deadline().isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Deadline " + submission.deadline() + " has passed");
+        }
+
+        synchronized (this) {
+            for (Job job : jobs.values()) {
+                if (job.domainId == domain.getId() && !job.state.isFinished()) {
+                    return new Submitted(snapshot(job), false);
+                }
+            }
+            if (crawlFrontier.isActive(domain.getId())) {
+                throw new IllegalStateException(domain.getUrl() + " is being crawled by a scheduled run");
+            }
+            Job job = new Job(ids.incrementAndGet(), domain.getId(), domain.getUrl(),
+                    submission.priority() == null ? 0 : submission.priority(),
+                    new WebCrawlerService.CrawlOptions(List.copyOf(normalized), submission.pageBudget(),
+                            submission.deadline()));
+            jobs.put(job.id, job);
+            waiting.add(job);
+            log.info("Crawl job {} submitted for {}", job.id, job.domainUrl);
+            dispatch();
+            return new Submitted(snapshot(job), true);
+        }
+    }
+
+    public JobSnapshot job(long id) {
+        Job job = jobs.get(id);
+        return job == null ? null : snapshot(job);
+    }
+
+    public List<JobSnapshot> jobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparingLong((Job job) -> job.id).reversed())
+                .map(this::snapshot)
+                .toList();
+    }
+
+    /**
+     * Cancels a waiting job at once and stops a running one after its pages
+     * in flight; null for an unknown job.
+     */
+    public synchronized JobSnapshot cancel(long id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+        if (job.state == State.QUEUED) {
+            waiting.remove(job);
+            finish(job, State.CANCELLED, null);
+        } else if (job.state == State.RUNNING && !job.cancelRequested) {
+            job.cancelRequested = true;
+            crawlFrontier.stop(job.domainId);
+            log.info("Crawl job {} for {} cancelled", job.id, job.domainUrl);
+        }
+        return snapshot(job);
+    }
+
+    /**
+     * Snapshots of the job every {@code crawler.jobs.progress-interval},
+     * completing after the one that shows it finished; null for an unknown
+     * job.
+     */
+    public Flux<JobSnapshot> progress(long id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+        Duration interval = crawlerProperties.getJobs().getProgressInterval();
+        return Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .map(tick -> snapshot(job))
+                .takeUntil(snapshot -> snapshot.state().isFinished());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        waiting.clear();
+        jobs.values().stream()
+                .filter(job -> job.subscription != null)
+                .forEach(job -> job.subscription.dispose());
+    }
+
+    private Domain resolve(Submission submission, List<String> urls) {
+        if (submission.domainId() != null) {
+            return domainRepository.findById(submission.domainId())
+                    .orElseThrow(() -> new NoSuchElementException("No domain " + submission.domainId()));
+        }
+        String url = submission.domain() != null ? submission.domain() : urls.isEmpty() ? null : urls.get(0);
+        String canonical = url == null ? null : urlNormalizer.normalize(url);
+        if (canonical == null) {
+            throw new IllegalArgumentException("A domain id, domain URL or URL to crawl is required");
+        }
+        String origin = ProductUrl.origin(canonical);
+        return domainRepository.findAll().stream()
+                .filter(domain -> origin.equals(ProductUrl.origin(urlNormalizer.normalize(domain.getUrl()))))
+                .findFirst()
+                .orElseThrow(() -> new NoSuchElementException("No domain registered for " + url));
+    }
+
+    private synchronized void dispatch() {
+        while (running < crawlerProperties.getJobs().getMaxConcurrent() && !waiting.isEmpty()) {
+            start(waiting.poll());
+        }
+    }
+
+    private void start(Job job) {
+        LocalDateTime deadline = job.options.deadline();
+        if (deadline != null && !deadline.isAfter(LocalDateTime.now())) {
+            finish(job, State.FAILED, "Deadline passed before the job started");
+            return;
+        }
+        Domain domain = domainRepository.findById(job.domainId).orElse(null);
+        if (domain == null) {
+            finish(job, State.FAILED, "Domain no longer exists");
+            return;
+        }
+        if (!crawlerScheduler.claim(domain)) {
+            finish(job, State.FAILED, "Domain is being crawled already");
+            return;
+        }
+        running++;
+        job.state = State.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        job.startedNanos = System.nanoTime();
+        log.info("Crawl job {} started for {}", job.id, job.domainUrl);
+        job.subscription = crawlerScheduler.crawlClaimed(domain, job.options)
+                .doOnNext(productUrl -> job.productUrls.increment())
+                .doOnError(e -> job.error = e.toString())
+                .doFinally(signal -> completed(job, domain, signal))
+                .subscribe(productUrl -> {
+                }, e -> log.warn("Crawl job {} for {} failed", job.id, job.domainUrl, e));
+    }
+
+    /**
+     * Settles the job once its crawl ends. The crawl reports an interrupted
+     * run through the domain's status rather than an error signal, so a
+     * domain that is not COMPLETED afterwards fails the job.
+     */
+    private void completed(Job job, Domain domain, SignalType signal) {
+        synchronized (this) {
+            running--;
+            job.stats = crawlStats.domain(job.domainId);
+            boolean interrupted = signal == SignalType.ON_ERROR || domain.getStatus() != CrawlStatus.COMPLETED;
+            State state = job.cancelRequested || signal == SignalType.CANCEL ? State.CANCELLED
+                    : interrupted ? State.FAILED
+                    : State.COMPLETED;
+            String error = state == State.FAILED && job.error == null
+                    ? "Crawl of " + job.domainUrl + " was interrupted"
+                    : job.error;
+            finish(job, state, error);
+        }
+        // The next job may be started from a Reactor thread; its database lookups belong elsewhere.
+        Schedulers.boundedElastic().schedule(this::dispatch);
+    }
+
+    private void finish(Job job, State state, String error) {
+        job.state = state;
+        job.error = error;
+        job.finishedAt = LocalDateTime.now();
+        job.finishedNanos = System.nanoTime();
+        finished.addLast(job);
+        while (finished.size() > crawlerProperties.getJobs().getHistorySize()) {
+            jobs.remove(finished.removeFirst().id);
+        }
+        log.info("Crawl job {} for {} {}", job.id, job.domainUrl, state.name().toLowerCase());
+    }
+
+    private JobSnapshot snapshot(Job job) {
+        State state = job.state;
+        CrawlStats.DomainSnapshot stats = state == State.RUNNING ? crawlStats.domain(job.domainId) : job.stats;
+        long processed = stats == null ? 0 : stats.pagesProcessed();
+        Double rate = null;
+        if (job.startedNanos != 0 && processed > 0) {
+            long end = state.isFinished() ? job.finishedNanos : System.nanoTime();
+            rate = processed / Math.max((end - job.startedNanos) / 1e9, 1e-3);
+        }
+        return new JobSnapshot(job.id, job.domainId, job.domainUrl, state, job.priority, job.options.urls(),
+                job.options.pageBudget(), job.options.deadline(), job.submittedAt, job.startedAt, job.finishedAt,
+                processed, stats == null ? 0 : stats.pagesRemaining(), job.productUrls.sum(), rate, job.error);
+    }
+
+    private static final class Job {
+        private final long id;
+        private final long domainId;
+        private final String domainUrl;
+        private final int priority;
+        private final WebCrawlerService.CrawlOptions options;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final LongAdder productUrls = new LongAdder();
+        private volatile State state = State.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long startedNanos;
+        private volatile long finishedNanos;
+        private volatile boolean cancelRequested;
+        private volatile CrawlStats.DomainSnapshot stats;
+        private volatile String error;
+        private Disposable subscription;
+
+        private Job(long id, long domainId, String domainUrl, int priority, WebCrawlerService.CrawlOptions options) {
+            this.id = id;
+            this.domainId = domainId;
+            this.domainUrl = domainUrl;
+            this.priority = priority;
+            this.options = options;
+        }
+    }
+}
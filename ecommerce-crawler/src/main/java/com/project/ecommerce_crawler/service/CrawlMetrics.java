@@ -0,0 +1,157 @@
+package com.project.ecommerce_crawler.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Per-domain meters for the fetch, parse and enqueue path. Meters are
+ * registered once per domain and handed out as a {@link DomainMeters} holder,
+ * so recording a fetch is a map lookup plus primitive updates, without
+ * building tags or looking up meters per call. With
+ * {@code crawler.metrics.domain-tags=false} all domains share one set tagged
+ * {@code domain=all}.
+ */
+@Service
+public class CrawlMetrics {
+    private static final String ALL_DOMAINS = "all";
+    private static final Long ALL_DOMAINS_KEY = -1L;
+
+    private final MeterRegistry meterRegistry;
+    private final CrawlFrontier crawlFrontier;
+    private final UrlNormalizer urlNormalizer;
+    private final CrawlerProperties crawlerProperties;
+    private final Map<Long, DomainMeters> meters = new ConcurrentHashMap<>();
+
+    public CrawlMetrics(MeterRegistry meterRegistry, CrawlFrontier crawlFrontier, UrlNormalizer urlNormalizer,
+            CrawlerProperties crawlerProperties) {
+        this.meterRegistry = meterRegistry;
+        this.crawlFrontier = crawlFrontier;
+        this.urlNormalizer = urlNormalizer;
+        this.crawlerProperties = crawlerProperties;
+    }
+
+    public DomainMeters domain(Domain domain) {
+        boolean domainTags = crawlerProperties.getMetrics().isDomainTags();
+        Long key = domainTags ? domain.getId() : ALL_DOMAINS_KEY;
+        DomainMeters domainMeters = meters.get(key);
+        if (domainMeters != null) {
+            return domainMeters;
+        }
+        return meters.computeIfAbsent(key, id -> domainTags
+                ? register(domain)
+                : new DomainMeters(meterRegistry, Tags.of("domain", ALL_DOMAINS)));
+    }
+
+    private DomainMeters register(Domain domain) {
+        String normalized = urlNormalizer.normalize(domain.getUrl());
+        String host = normalized == null ? null : urlNormalizer.host(normalized);
+        Tags tags = Tags.of("domain", host == null ? domain.getUrl() : host);
+        Gauge.builder("crawler.frontier.size", crawlFrontier, frontier -> frontier.size(domain))
+                .description("URLs waiting in the in-memory frontier of a domain")
+                .tags(tags)
+                .register(meterRegistry);
+        return new DomainMeters(meterRegistry, tags);
+    }
+
+    public static final class DomainMeters {
+        private final Timer fetchLatency;
+        private final Counter bytes;
+        private final Counter[] statusClasses = new Counter[6];
+        private final Counter errors;
+        private final Timer parseTime;
+        private final DistributionSummary links;
+        private final DistributionSummary products;
+        private final Counter newUrls;
+        private final Counter seenUrls;
+
+        private DomainMeters(MeterRegistry meterRegistry, Tags tags) {
+            this.fetchLatency = Timer.builder("crawler.fetch.latency")
+                    .description("Time from sending a page request to the end of its body")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(10))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+            this.bytes = Counter.builder("crawler.fetch.bytes")
+                    .description("Page body bytes received after decompression")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry);
+            for (int statusClass = 1; statusClass <= 5; statusClass++) {
+                statusClasses[statusClass] = Counter.builder("crawler.fetch.responses")
+                        .description("Page responses by status class")
+                        .tags(tags)
+                        .tag("status", statusClass + "xx")
+                        .register(meterRegistry);
+            }
+            this.errors = Counter.builder("crawler.fetch.responses")
+                    .description("Page responses by status class")
+                    .tags(tags)
+                    .tag("status", "error")
+                    .register(meterRegistry);
+            this.parseTime = Timer.builder("crawler.parse.time")
+                    .description("CPU time spent tokenizing and hashing a page body")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.links = DistributionSummary.builder("crawler.page.links")
+                    .description("Same-host navigation links found per page")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.products = DistributionSummary.builder("crawler.page.products")
+                    .description("Product URLs found per page")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.newUrls = Counter.builder("crawler.dedup.urls")
+                    .description("Discovered URLs by URL-seen store verdict")
+                    .tags(tags)
+                    .tag("result", "new")
+                    .register(meterRegistry);
+            this.seenUrls = Counter.builder("crawler.dedup.urls")
+                    .description("Discovered URLs by URL-seen store verdict")
+                    .tags(tags)
+                    .tag("result", "seen")
+                    .register(meterRegistry);
+        }
+
+        public void recordFetch(long nanos) {
+            fetchLatency.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void recordStatus(int status) {
+            int statusClass = status / 100;
+            (statusClass >= 1 && statusClass <= 5 ? statusClasses[statusClass] : errors).increment();
+        }
+
+        public void recordError() {
+            errors.increment();
+        }
+
+        public void recordBytes(int count) {
+            bytes.increment(count);
+        }
+
+        public void recordParse(long nanos, int linkCount, int productCount) {
+            parseTime.record(nanos, TimeUnit.NANOSECONDS);
+            links.record(linkCount);
+            products.record(productCount);
+        }
+
+        public void recordDedup(boolean fresh) {
+            (fresh ? newUrls : seenUrls).increment();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.project.ecommerce_crawler.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawlStatus;
+import com.project.ecommerce_crawler.model.Domain;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * In-memory crawl statistics per domain, so that status polling never
+ * touches the database. The crawl pipeline reports status changes, queued
+ * and processed pages and inserted product URLs as they happen; every
+ * {@code crawler.stats.reconcile-interval} the domain list is reloaded from
+ * the database and the product URLs of the domains that may have gained some
+ * are recounted, which also corrects changes made by other nodes. The first
+ * snapshot reconciles before answering and is the only one that counts the
+ * whole {@code product_url} table.
+ */
+@Slf4j
+@Service
+public class CrawlStats {
+    private final JdbcTemplate jdbcTemplate;
+    private final CrawlerProperties crawlerProperties;
+    private final Map<Long, DomainStats> domains = new ConcurrentHashMap<>();
+    private volatile LocalDateTime reconciledAt;
+    private Disposable reconciler;
+
+    public CrawlStats(JdbcTemplate jdbcTemplate, CrawlerProperties crawlerProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.crawlerProperties = crawlerProperties;
+    }
+
+    @PostConstruct
+    public void start() {
+        Duration interval = crawlerProperties.getStats().getReconcileInterval();
+        if (interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        reconciler = Flux.interval(interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::reconcile)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(e -> {
+                            log.warn("Crawl statistics reconciliation failed", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconciler != null) {
+            reconciler.dispose();
+        }
+    }
+
+    public void recordDomain(Domain domain) {
+        if (domain.getId() != null) {
+            stats(domain.getId(), domain.getUrl()).status = domain.getStatus();
+        }
+    }
+
+    public void startRun(Domain domain) {
+        DomainStats stats = stats(domain.getId(), domain.getUrl());
+        stats.queued.reset();
+        stats.processed.reset();
+        stats.runStartedNanos = System.nanoTime();
+    }
+
+    public void recordQueued(Domain domain) {
+        stats(domain.getId(), domain.getUrl()).queued.increment();
+    }
+
+    public void recordProcessed(Domain domain) {
+        stats(domain.getId(), domain.getUrl()).processed.increment();
+    }
+
+    public void recordProductUrls(long domainId, int inserted) {
+        if (inserted > 0) {
+            DomainStats stats = stats(domainId, null);
+            stats.productUrls.add(inserted);
+            stats.changed = true;
+        }
+    }
+
+    private DomainStats stats(Long domainId, String url) {
+        DomainStats stats = domains.get(domainId);
+        if (stats == null) {
+            stats = domains.computeIfAbsent(domainId, id -> new DomainStats());
+        }
+        if (url != null) {
+            stats.url = url;
+        }
+        return stats;
+    }
+
+    /**
+     * Reloads domains and their status, and recounts the product URLs of
+     * domains that have not been counted yet, gained rows on this node, are
+     * being crawled or changed status since the last reconciliation. Each
+     * recount reads one domain's rows through the {@code (domain_id, url_hash)}
+     * index; only the first reconciliation counts the whole table. Product URLs
+     * added to an idle domain outside the crawler are not picked up. Rows
+     * inserted between a count query and the reset below are lost from the
+     * in-memory count until the domain is recounted.
+     */
+    public synchronized void reconcile() {
+        Map<Long, Long> productUrls = new HashMap<>();
+        if (reconciledAt == null) {
+            jdbcTemplate.query("SELECT domain_id, COUNT(*) FROM product_url GROUP BY domain_id",
+                    resultSet -> {
+                        productUrls.put(resultSet.getLong(1), resultSet.getLong(2));
+                    });
+        }
+        Set<Long> ids = new HashSet<>();
+        List<Long> recount = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, url, status FROM domain", resultSet -> {
+            long id = resultSet.getLong(1);
+            String value = resultSet.getString(3);
+            CrawlStatus status = value == null ? null : CrawlStatus.valueOf(value);
+            DomainStats stats = stats(id, resultSet.getString(2));
+            if (reconciledAt == null) {
+                stats.reset(productUrls.getOrDefault(id, 0L));
+            } else if (!stats.counted || stats.changed || status == CrawlStatus.IN_PROGRESS
+                    || status != stats.reconciledStatus) {
+                recount.add(id);
+            }
+            stats.status = status;
+            stats.reconciledStatus = status;
+            ids.add(id);
+        });
+        domains.keySet().retainAll(ids);
+        for (long id : recount) {
+            DomainStats stats = domains.get(id);
+            stats.changed = false;
+            stats.reset(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_url WHERE domain_id = ?",
+                    Long.class, id));
+        }
+        reconciledAt = LocalDateTime.now();
+    }
+
+    public Snapshot snapshot() {
+        if (reconciledAt == null) {
+            reconcile();
+        }
+        long now = System.nanoTime();
+        Map<CrawlStatus, Integer> byStatus = new EnumMap<>(CrawlStatus.class);
+        for (CrawlStatus status : CrawlStatus.values()) {
+            byStatus.put(status, 0);
+        }
+        List<DomainSnapshot> perDomain = new ArrayList<>(domains.size());
+        long totalProductUrls = 0;
+        for (Map.Entry<Long, DomainStats> entry : domains.entrySet()) {
+            DomainSnapshot domain = entry.getValue().snapshot(entry.getKey(), now);
+            if (domain.status() != null) {
+                byStatus.merge(domain.status(), 1, Integer::sum);
+            }
+            totalProductUrls += domain.productUrls();
+            perDomain.add(domain);
+        }
+        perDomain.sort((a, b) -> Long.compare(a.id(), b.id()));
+        return new Snapshot(perDomain.size(), byStatus, totalProductUrls, reconciledAt, perDomain);
+    }
+
+    /**
+     * Current counters of one domain, without reconciling; null for a domain
+     * that has not been seen yet.
+     */
+    public DomainSnapshot domain(long domainId) {
+        DomainStats stats = domains.get(domainId);
+        return stats == null ? null : stats.snapshot(domainId, System.nanoTime());
+    }
+
+    private static final class DomainStats {
+        private final LongAdder productUrls = new LongAdder();
+        private final LongAdder queued = new LongAdder();
+        private final LongAdder processed = new LongAdder();
+        private volatile String url;
+        private volatile CrawlStatus status;
+        private volatile long runStartedNanos;
+        private volatile boolean changed;
+        private volatile boolean counted;
+        private CrawlStatus reconciledStatus;
+
+        private void reset(long productUrlCount) {
+            productUrls.reset();
+            productUrls.add(productUrlCount);
+            counted = true;
+        }
+
+        private DomainSnapshot snapshot(long id, long now) {
+            long processedPages = processed.sum();
+            long remaining = Math.max(0, queued.sum() - processedPages);
+            Double pagesPerSecond = null;
+            Long etaSeconds = null;
+            if (status == CrawlStatus.IN_PROGRESS && runStartedNanos != 0 && processedPages > 0) {
+                double rate = processedPages / ((now - runStartedNanos) / 1e9);
+                pagesPerSecond = rate;
+                etaSeconds = Math.round(remaining / rate);
+            }
+            return new DomainSnapshot(id, url, status, productUrls.sum(), processedPages, remaining,
+                    pagesPerSecond, etaSeconds);
+        }
+    }
+
+    public record Snapshot(int totalDomains, Map<CrawlStatus, Integer> domainsByStatus, long totalProductUrls,
+            LocalDateTime reconciledAt, List<DomainSnapshot> domains) {
+    }
+
+    /**
+     * @param pagesProcessed pages fetched, skipped or failed in the current run
+     * @param pagesRemaining pages queued in the current run and not processed yet
+     * @param etaSeconds     time to process the remaining pages at the run's average rate;
+     *                       grows while discovery still adds pages
+     */
+    public record DomainSnapshot(long id, String url, CrawlStatus status, long productUrls, long pagesProcessed,
+            long pagesRemaining, Double pagesPerSecond, Long etaSeconds) {
+    }
+}
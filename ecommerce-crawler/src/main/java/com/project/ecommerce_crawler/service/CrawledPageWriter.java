@@ -0,0 +1,163 @@
+package com.project.ecommerce_crawler.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawledPage;
+import com.project.ecommerce_crawler.model.PageStatus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Write-behind buffer for per-page fetch metadata, flushed together with
+ * {@link ProductUrlWriter} by the {@link PersistencePipeline}. Known pages are
+ * updated by id; pages without an id are updated by (domain, url hash) and
+ * inserted if that matched nothing, because a {@link PageStatus#QUEUED} row
+ * may have been written for them since they were looked up. Each kind of
+ * statement goes out as one JDBC batch, so recording a fetch never costs a
+ * select. As with product URLs, a batch that fails to write goes back into
+ * the buffer for the next flush; a newer state of the same page replaces it.
+ */
+@Service
+public class CrawledPageWriter {
+    private static final String INSERT_SQL = "INSERT INTO crawled_page (id, domain_id, url_hash, url, parent_hash, "
+            + "depth, status, attempts, error_class, etag, last_modified, content_hash, fetched_at, last_changed_at, "
+            + "next_fetch_at, recrawl_interval_seconds) "
+            + "VALUES (nextval('crawled_page_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String SET_STATE = "SET status = ?, attempts = ?, error_class = ?, etag = ?, "
+            + "last_modified = ?, content_hash = ?, fetched_at = ?, last_changed_at = ?, next_fetch_at = ?, "
+            + "recrawl_interval_seconds = ? ";
+    private static final String UPDATE_SQL = "UPDATE crawled_page " + SET_STATE + "WHERE id = ?";
+    private static final String UPDATE_BY_KEY_SQL = "UPDATE crawled_page " + SET_STATE
+            + "WHERE domain_id = ? AND url_hash = ?";
+    private static final String QUEUE_SQL = "UPDATE crawled_page SET status = 'QUEUED', depth = ? "
+            + "WHERE domain_id = ? AND url_hash = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CrawlerProperties crawlerProperties;
+    private final FlushMeters flushMeters;
+    private final Object flushLock = new Object();
+    private Map<Long, CrawledPage> buffer = new LinkedHashMap<>();
+    private long retryAt;
+
+    public CrawledPageWriter(JdbcTemplate jdbcTemplate, CrawlerProperties crawlerProperties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.crawlerProperties = crawlerProperties;
+        this.flushMeters = new FlushMeters(meterRegistry, "crawled_page");
+    }
+
+    public void submit(CrawledPage page) {
+        boolean full;
+        synchronized (this) {
+            buffer.put(page.getUrlHash(), page);
+            full = buffer.size() >= crawlerProperties.getPersistence().getBatchSize()
+                    && System.nanoTime() - retryAt >= 0;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    public synchronized int pending() {
+        return buffer.size();
+    }
+
+    public int flush() {
+        synchronized (flushLock) {
+            List<CrawledPage> batch;
+            synchronized (this) {
+                if (buffer.isEmpty()) {
+                    return 0;
+                }
+                batch = new ArrayList<>(buffer.values());
+                buffer = new LinkedHashMap<>();
+            }
+            long start = System.nanoTime();
+            int written;
+            try {
+                written = write(batch);
+            } catch (RuntimeException e) {
+                restore(batch);
+                throw e;
+            }
+            flushMeters.record(System.nanoTime() - start, batch.size());
+            return written;
+        }
+    }
+
+    /**
+     * Puts a batch that failed back, unless a page of it was submitted again
+     * since. Every statement is safe to repeat, so the part of the batch that
+     * did get written is simply written again.
+     */
+    private synchronized void restore(List<CrawledPage> batch) {
+        Map<Long, CrawledPage> restored = new LinkedHashMap<>();
+        batch.forEach(page -> restored.put(page.getUrlHash(), page));
+        restored.putAll(buffer);
+        buffer = restored;
+        retryAt = System.nanoTime() + crawlerProperties.getPersistence().getFlushInterval().toNanos();
+    }
+
+    private int write(List<CrawledPage> batch) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> keyUpdates = new ArrayList<>();
+        List<Object[]> queued = new ArrayList<>();
+        for (CrawledPage page : batch) {
+            if (page.getId() != null) {
+                updates.add(state(page, page.getId()));
+                continue;
+            }
+            if (page.getStatus() == PageStatus.QUEUED) {
+                queued.add(new Object[] { page.getDepth(), page.getDomainId(), page.getUrlHash() });
+            } else {
+                keyUpdates.add(state(page, page.getDomainId(), page.getUrlHash()));
+            }
+            inserts.add(new Object[] { page.getDomainId(), page.getUrlHash(), page.getUrl(), page.getParentHash(),
+                    page.getDepth(), status(page), page.getAttempts(), page.getErrorClass(), page.getEtag(),
+                    page.getLastModified(), page.getContentHash(), timestamp(page.getFetchedAt()),
+                    timestamp(page.getLastChangedAt()), timestamp(page.getNextFetchAt()),
+                    page.getRecrawlIntervalSeconds() });
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        if (!keyUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_BY_KEY_SQL, keyUpdates);
+        }
+        if (!queued.isEmpty()) {
+            jdbcTemplate.batchUpdate(QUEUE_SQL, queued);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        return batch.size();
+    }
+
+    private static Object[] state(CrawledPage page, Object... key) {
+        Object[] values = { status(page), page.getAttempts(), page.getErrorClass(), page.getEtag(),
+                page.getLastModified(), page.getContentHash(), timestamp(page.getFetchedAt()),
+                timestamp(page.getLastChangedAt()), timestamp(page.getNextFetchAt()),
+                page.getRecrawlIntervalSeconds() };
+        Object[] row = Arrays.copyOf(values, values.length + key.length);
+        System.arraycopy(key, 0, row, values.length, key.length);
+        return row;
+    }
+
+    private static String status(CrawledPage page) {
+        return page.getStatus() == null ? null : page.getStatus().name();
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+}
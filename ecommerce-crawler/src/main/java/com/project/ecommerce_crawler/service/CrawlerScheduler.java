@@ -1,35 +1,108 @@
 package com.project.ecommerce_crawler.service;
 
+import java.util.List;
+
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.project.ecommerce_crawler.config.CrawlerProperties;
 import com.project.ecommerce_crawler.model.CrawlStatus;
 import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.ProductUrl;
 import com.project.ecommerce_crawler.repository.DomainRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
-import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CrawlerScheduler {
     private final WebCrawlerService crawlerService;
     private final DomainRepository domainRepository;
+    private final CrawlFrontier crawlFrontier;
+    private final CrawlerProperties crawlerProperties;
+    private final ClusterCoordinator clusterCoordinator;
+    private final CrawlStats crawlStats;
+    private Disposable heartbeat;
+    
+    @PostConstruct
+    public void start() {
+        if (!clusterCoordinator.isEnabled()) {
+            return;
+        }
+        clusterCoordinator.heartbeat();
+        heartbeat = Flux.interval(crawlerProperties.getCluster().getHeartbeatInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::rebalance)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(e -> {
+                            log.warn("Cluster heartbeat failed", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (heartbeat != null) {
+            heartbeat.dispose();
+        }
+    }
     
     @Scheduled(fixedDelay = 24 * 60 * 60 * 1000) // Run daily
     public void scheduleCrawling() {
         List<Domain> domainsToCrawl = domainRepository.findByStatusIn(
-                List.of(CrawlStatus.PENDING, CrawlStatus.FAILED));
+                List.of(CrawlStatus.PENDING, CrawlStatus.FAILED, CrawlStatus.IN_PROGRESS, CrawlStatus.COMPLETED));
         
-        Flux.fromIterable(domainsToCrawl)
-                .parallel()
-                .runOn(Schedulers.boundedElastic())
-                .flatMap(crawlerService::crawlDomain)
-                .sequential()
+        crawl(domainsToCrawl);
+    }
+    
+    /**
+     * Heartbeat tick in cluster mode: renews leases, lets go of domains that
+     * moved to another node and resumes interrupted domains that now belong
+     * to this one.
+     */
+    public void rebalance() {
+        clusterCoordinator.heartbeat();
+        crawl(domainRepository.findByStatusIn(List.of(CrawlStatus.IN_PROGRESS)));
+    }
+    
+    public void crawl(List<Domain> domains) {
+        Flux.fromIterable(domains)
+                .filter(this::claim)
+                .flatMap(domain -> crawlClaimed(domain, WebCrawlerService.CrawlOptions.DEFAULT),
+                        crawlerProperties.getFrontier().getMaxConcurrentDomains())
                 .subscribe();
     }
     
+    /**
+     * Reserves the domain for a crawl on this node; false if it is being
+     * crawled here already or belongs to another node. Scheduled runs and
+     * crawl jobs both go through here, so they never crawl a domain twice.
+     */
+    public boolean claim(Domain domain) {
+        if (!crawlFrontier.claim(domain)) {
+            return false;
+        }
+        if (!clusterCoordinator.tryAcquire(domain)) {
+            crawlFrontier.close(domain);
+            return false;
+        }
+        return true;
+    }
+    
+    public Flux<ProductUrl> crawlClaimed(Domain domain, WebCrawlerService.CrawlOptions options) {
+        return crawlerService.crawlDomain(domain, options)
+                .takeUntilOther(clusterCoordinator.revoked(domain))
+                .doFinally(signal -> clusterCoordinator.release(domain));
+    }
+    
     public void initializeDomains(List<String> domainUrls) {
         domainUrls.forEach(url -> {
             if (!domainRepository.existsByUrl(url)) { 
@@ -37,6 +110,7 @@ public class CrawlerScheduler {
                 domain.setUrl(url);
                 domain.setStatus(CrawlStatus.PENDING);
                 domainRepository.save(domain);
+                crawlStats.recordDomain(domain);
             }
         });
     }
@@ -0,0 +1,121 @@
+package com.project.ecommerce_crawler.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjIntConsumer;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cuts page responses short before they cost bandwidth or parse time. Bodies
+ * whose content type is not one of {@code crawler.fetch.content-types} are not
+ * read at all, and bodies larger than {@code crawler.fetch.max-body-size}
+ * (after decompression) are only read up to that size.
+ */
+@Service
+public class FetchLimits {
+    private static final long DRAIN_THRESHOLD = 64 * 1024;
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final List<MediaType> contentTypes;
+    private final long maxBodyBytes;
+    private final Counter contentTypeCounter;
+    private final Counter sizeCounter;
+
+    public FetchLimits(CrawlerProperties crawlerProperties, MeterRegistry meterRegistry) {
+        CrawlerProperties.Fetch config = crawlerProperties.getFetch();
+        this.contentTypes = config.getContentTypes().stream().map(MediaType::parseMediaType).toList();
+        this.maxBodyBytes = config.getMaxBodySize().toBytes();
+        this.contentTypeCounter = counter(meterRegistry, "content_type");
+        this.sizeCounter = counter(meterRegistry, "size");
+    }
+
+    public boolean accepts(HttpHeaders headers) {
+        MediaType contentType;
+        try {
+            contentType = headers.getContentType();
+        } catch (InvalidMediaTypeException e) {
+            return true;
+        }
+        if (contentType == null || contentTypes.stream().anyMatch(accepted -> accepted.includes(contentType))) {
+            return true;
+        }
+        contentTypeCounter.increment();
+        return false;
+    }
+
+    /**
+     * Gives up on a response body. Small bodies are drained so the connection
+     * goes back to the pool; anything larger or of unknown length is cancelled
+     * after the first chunk, which closes the connection instead of
+     * downloading the rest. Not subscribing at all would make the client
+     * drain the body.
+     */
+    public Mono<Void> discard(ClientResponse response) {
+        long length = response.headers().contentLength().orElse(-1);
+        if (length >= 0 && length <= DRAIN_THRESHOLD) {
+            return response.releaseBody();
+        }
+        return response.bodyToFlux(DataBuffer.class)
+                .take(1)
+                .doOnNext(DataBufferUtils::release)
+                .then();
+    }
+
+    public Flux<DataBuffer> body(ClientResponse response) {
+        Flux<DataBuffer> body = response.bodyToFlux(DataBuffer.class);
+        long length = response.headers().contentLength().orElse(-1);
+        if (length >= 0 && length < maxBodyBytes) {
+            return body;
+        }
+        AtomicLong read = new AtomicLong();
+        return DataBufferUtils.takeUntilByteCount(body, maxBodyBytes)
+                .doOnNext(buffer -> read.addAndGet(buffer.readableByteCount()))
+                .doOnComplete(() -> {
+                    if (read.get() >= maxBodyBytes) {
+                        sizeCounter.increment();
+                    }
+                });
+    }
+
+    /**
+     * Blocking counterpart of {@link #body(ClientResponse)}: hands the body to
+     * the consumer in chunks, stopping at the size limit. The chunk array is
+     * reused between calls.
+     */
+    public void read(InputStream body, ObjIntConsumer<byte[]> consumer) throws IOException {
+        byte[] chunk = new byte[CHUNK_SIZE];
+        long remaining = maxBodyBytes;
+        while (remaining > 0) {
+            int read = body.read(chunk, 0, (int) Math.min(chunk.length, remaining));
+            if (read < 0) {
+                return;
+            }
+            consumer.accept(chunk, read);
+            remaining -= read;
+        }
+        sizeCounter.increment();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("crawler.fetch.cutoff")
+                .description("Page responses not read in full")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
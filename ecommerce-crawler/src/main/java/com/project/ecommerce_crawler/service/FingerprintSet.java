@@ -0,0 +1,154 @@
+package com.project.ecommerce_crawler.service;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * Exact set of 64-bit fingerprints kept off the Java heap. Fingerprints are
+ * spread over independently locked stripes, each an open-addressing table in
+ * a direct buffer, so a site with tens of millions of URLs costs a few hundred
+ * megabytes of native memory and no GC pressure.
+ */
+public final class FingerprintSet {
+    private static final double MAX_LOAD = 0.6;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public FingerprintSet(int stripeCount, long expectedSize) {
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        int perStripe = (int) Math.min(1 << 24, Math.max(16, expectedSize / count));
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    public boolean add(long fingerprint) {
+        Stripe stripe = stripe(fingerprint);
+        synchronized (stripe) {
+            return stripe.add(fingerprint);
+        }
+    }
+
+    public boolean contains(long fingerprint) {
+        Stripe stripe = stripe(fingerprint);
+        synchronized (stripe) {
+            return stripe.contains(fingerprint);
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    public void forEach(LongConsumer consumer) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.forEach(consumer);
+            }
+        }
+    }
+
+    private Stripe stripe(long fingerprint) {
+        return stripes[(int) (mix(fingerprint) >>> 40) & stripeMask];
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static final class Stripe {
+        private LongBuffer table;
+        private int mask;
+        private int size;
+        private boolean containsZero;
+
+        private Stripe(int expectedSize) {
+            allocate(Integer.highestOneBit((int) (expectedSize / MAX_LOAD)) << 1);
+        }
+
+        private boolean add(long fingerprint) {
+            if (fingerprint == 0) {
+                if (containsZero) {
+                    return false;
+                }
+                containsZero = true;
+                size++;
+                return true;
+            }
+            int slot = (int) mix(fingerprint) & mask;
+            long current;
+            while ((current = table.get(slot)) != 0) {
+                if (current == fingerprint) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table.put(slot, fingerprint);
+            if (++size > (mask + 1) * MAX_LOAD) {
+                resize();
+            }
+            return true;
+        }
+
+        private boolean contains(long fingerprint) {
+            if (fingerprint == 0) {
+                return containsZero;
+            }
+            int slot = (int) mix(fingerprint) & mask;
+            long current;
+            while ((current = table.get(slot)) != 0) {
+                if (current == fingerprint) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private void forEach(LongConsumer consumer) {
+            if (containsZero) {
+                consumer.accept(0);
+            }
+            for (int i = 0; i <= mask; i++) {
+                long value = table.get(i);
+                if (value != 0) {
+                    consumer.accept(value);
+                }
+            }
+        }
+
+        private void resize() {
+            LongBuffer old = table;
+            int oldCapacity = mask + 1;
+            allocate(oldCapacity << 1);
+            for (int i = 0; i < oldCapacity; i++) {
+                long value = old.get(i);
+                if (value != 0) {
+                    int slot = (int) mix(value) & mask;
+                    while (table.get(slot) != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table.put(slot, value);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            table = ByteBuffer.allocateDirect(capacity * Long.BYTES).asLongBuffer();
+            mask = capacity - 1;
+        }
+    }
+}
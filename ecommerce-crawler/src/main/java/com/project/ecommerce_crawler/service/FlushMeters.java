@@ -0,0 +1,33 @@
+package com.project.ecommerce_crawler.service;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Flush latency and batch size of one write-behind buffer, tagged with the
+ * table it writes to.
+ */
+final class FlushMeters {
+    private final Timer latency;
+    private final DistributionSummary batchSize;
+
+    FlushMeters(MeterRegistry meterRegistry, String table) {
+        this.latency = Timer.builder("crawler.persistence.flush")
+                .description("Time spent writing one batch to the database")
+                .tag("table", table)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("crawler.persistence.batch.size")
+                .description("Rows per batch written to the database")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+
+    void record(long nanos, int rows) {
+        latency.record(nanos, TimeUnit.NANOSECONDS);
+        batchSize.record(rows);
+    }
+}
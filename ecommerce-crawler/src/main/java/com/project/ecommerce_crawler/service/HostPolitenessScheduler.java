@@ -0,0 +1,314 @@
+package com.project.ecommerce_crawler.service;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Gates every outgoing request through a per-host budget: a cap on concurrent
+ * connections, a token bucket whose rate adapts with AIMD (additive increase on
+ * success, multiplicative decrease on 429/503 or rising latency) and the
+ * host's robots.txt {@code Crawl-delay}. Reactive fetches go through
+ * {@link #schedule}, blocking ones through {@link #execute}; both draw on the
+ * same budgets.
+ */
+@Service
+public class HostPolitenessScheduler {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final CrawlerProperties crawlerProperties;
+    private final Map<String, HostBudget> budgets = new ConcurrentHashMap<>();
+    private final Timer stallTimer;
+
+    public HostPolitenessScheduler(CrawlerProperties crawlerProperties, MeterRegistry meterRegistry) {
+        this.crawlerProperties = crawlerProperties;
+        this.stallTimer = Timer.builder("crawler.fetch.stall")
+                .description("Time requests waited for a host connection slot and rate token")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> schedule(String url, Mono<T> request) {
+        return schedule(url, request, value -> Flux.just(value)).singleOrEmpty();
+    }
+
+    /**
+     * Variant of {@link #schedule(String, Mono)} for responses that are read
+     * as a stream: the connection slot is held until {@code body} completes,
+     * fails or is cancelled. The latency sample still ends once
+     * {@code request} has opened the response, so that large bodies do not
+     * read as a slow host.
+     */
+    public <T, R> Flux<R> schedule(String url, Mono<T> request, Function<? super T, ? extends Flux<R>> body) {
+        HostBudget budget = budget(hostOf(url));
+        CrawlerProperties.Politeness config = crawlerProperties.getPoliteness();
+
+        return Flux.defer(() -> {
+                    Permit permit = new Permit(budget);
+                    long queued = System.nanoTime();
+                    return permit.acquire()
+                            .then(Mono.defer(() -> Mono.delay(budget.reserve())))
+                            .then(Mono.defer(() -> {
+                                long start = System.nanoTime();
+                                stallTimer.record(start - queued, TimeUnit.NANOSECONDS);
+                                return request
+                                        .doOnSuccess(value -> budget.onSuccess(System.nanoTime() - start))
+                                        .doOnError(budget::onError);
+                            }))
+                            .flatMapMany(body)
+                            .doFinally(signal -> permit.release());
+                })
+                .retryWhen(Retry.max(config.getMaxRetries()).filter(HostPolitenessScheduler::isThrottled));
+    }
+
+    /**
+     * Blocking counterpart of {@link #schedule}: the calling thread waits for
+     * the connection slot and the rate token, then runs the request. Meant for
+     * virtual threads, where waiting does not hold a platform thread.
+     */
+    public <T> T execute(String url, Callable<T> request) throws Exception {
+        HostBudget budget = budget(hostOf(url));
+        int maxRetries = crawlerProperties.getPoliteness().getMaxRetries();
+
+        for (int attempt = 0; ; attempt++) {
+            Permit permit = new Permit(budget);
+            long queued = System.nanoTime();
+            try {
+                permit.await();
+                TimeUnit.NANOSECONDS.sleep(budget.reserve().toNanos());
+                long start = System.nanoTime();
+                stallTimer.record(start - queued, TimeUnit.NANOSECONDS);
+                T value;
+                try {
+                    value = request.call();
+                } catch (Exception e) {
+                    budget.onError(e);
+                    if (attempt < maxRetries && isThrottled(e)) {
+                        continue;
+                    }
+                    throw e;
+                }
+                budget.onSuccess(System.nanoTime() - start);
+                return value;
+            } finally {
+                permit.release();
+            }
+        }
+    }
+
+    public void setCrawlDelay(String url, Duration crawlDelay) {
+        budget(hostOf(url)).setCrawlDelay(crawlDelay);
+    }
+
+    public double currentRate(String url) {
+        return budget(hostOf(url)).rate();
+    }
+
+    private HostBudget budget(String host) {
+        return budgets.computeIfAbsent(host, h -> new HostBudget(crawlerProperties.getPoliteness()));
+    }
+
+    private static String hostOf(String url) {
+        String host = URI.create(url).getHost();
+        return host == null ? url : host.toLowerCase();
+    }
+
+    private static boolean isThrottled(Throwable error) {
+        return error instanceof WebClientResponseException response
+                && (response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                        || response.getStatusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+
+    private static final class HostBudget {
+        private final CrawlerProperties.Politeness config;
+        private final Queue<Permit> waiters = new ArrayDeque<>();
+        private int inFlight;
+        private double rate;
+        private double tokens;
+        private long lastRefillNanos;
+        private long pausedUntilNanos;
+        private long lastDecreaseNanos;
+        private double latencyEwmaNanos;
+        private long crawlDelayNanos;
+
+        private HostBudget(CrawlerProperties.Politeness config) {
+            this.config = config;
+            this.rate = config.getInitialRate();
+            this.tokens = config.getBurst();
+            this.lastRefillNanos = System.nanoTime();
+            this.pausedUntilNanos = lastRefillNanos;
+            this.lastDecreaseNanos = lastRefillNanos - NANOS_PER_SECOND;
+        }
+
+        private void enqueue(Permit permit) {
+            boolean granted = false;
+            synchronized (this) {
+                if (inFlight < config.getMaxConnectionsPerHost()) {
+                    inFlight++;
+                    granted = true;
+                } else {
+                    waiters.add(permit);
+                }
+            }
+            if (granted && !permit.grant()) {
+                release();
+            }
+        }
+
+        private void release() {
+            while (true) {
+                Permit next;
+                synchronized (this) {
+                    next = waiters.poll();
+                    if (next == null) {
+                        inFlight--;
+                        return;
+                    }
+                }
+                if (next.grant()) {
+                    return;
+                }
+            }
+        }
+
+        private synchronized void remove(Permit permit) {
+            waiters.remove(permit);
+        }
+
+        private synchronized Duration reserve() {
+            long now = System.nanoTime();
+            double effectiveRate = effectiveRate();
+            double capacity = crawlDelayNanos > 0 ? 1 : config.getBurst();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * effectiveRate / NANOS_PER_SECOND);
+            lastRefillNanos = now;
+            tokens -= 1;
+
+            long wait = tokens >= 0 ? 0 : (long) (-tokens / effectiveRate * NANOS_PER_SECOND);
+            return Duration.ofNanos(Math.max(wait, pausedUntilNanos - now));
+        }
+
+        private synchronized void onSuccess(long latencyNanos) {
+            if (latencyEwmaNanos == 0) {
+                latencyEwmaNanos = latencyNanos;
+            } else if (latencyNanos > latencyEwmaNanos * config.getLatencyThreshold()) {
+                decrease(System.nanoTime());
+            } else {
+                rate = Math.min(config.getMaxRate(), rate + config.getAdditiveIncrease());
+            }
+            latencyEwmaNanos = latencyEwmaNanos * 0.8 + latencyNanos * 0.2;
+        }
+
+        private synchronized void onError(Throwable error) {
+            if (!isThrottled(error)) {
+                return;
+            }
+            long now = System.nanoTime();
+            decrease(now);
+            Duration retryAfter = retryAfter(((WebClientResponseException) error).getHeaders());
+            if (retryAfter != null) {
+                pausedUntilNanos = Math.max(pausedUntilNanos, now + retryAfter.toNanos());
+            }
+        }
+
+        private synchronized void setCrawlDelay(Duration crawlDelay) {
+            crawlDelayNanos = crawlDelay == null ? 0 : crawlDelay.toNanos();
+        }
+
+        private synchronized double rate() {
+            return effectiveRate();
+        }
+
+        private double effectiveRate() {
+            if (crawlDelayNanos <= 0) {
+                return rate;
+            }
+            return Math.min(rate, (double) NANOS_PER_SECOND / crawlDelayNanos);
+        }
+
+        private void decrease(long now) {
+            if (now - lastDecreaseNanos < NANOS_PER_SECOND) {
+                return;
+            }
+            lastDecreaseNanos = now;
+            rate = Math.max(config.getMinRate(), rate * config.getMultiplicativeDecrease());
+        }
+
+        private Duration retryAfter(HttpHeaders headers) {
+            String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+            if (value == null) {
+                return null;
+            }
+            try {
+                Duration retryAfter = Duration.ofSeconds(Long.parseLong(value.trim()));
+                return retryAfter.compareTo(config.getMaxRetryAfter()) > 0 ? config.getMaxRetryAfter() : retryAfter;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Permit {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int DONE = 2;
+
+        private final HostBudget budget;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile Runnable onGrant;
+
+        private Permit(HostBudget budget) {
+            this.budget = budget;
+        }
+
+        private Mono<Void> acquire() {
+            return Mono.create(sink -> {
+                this.onGrant = sink::success;
+                sink.onCancel(this::release);
+                budget.enqueue(this);
+            });
+        }
+
+        private void await() throws InterruptedException {
+            CountDownLatch granted = new CountDownLatch(1);
+            this.onGrant = granted::countDown;
+            budget.enqueue(this);
+            granted.await();
+        }
+
+        private boolean grant() {
+            if (!state.compareAndSet(WAITING, GRANTED)) {
+                return false;
+            }
+            onGrant.run();
+            return true;
+        }
+
+        private void release() {
+            if (state.compareAndSet(GRANTED, DONE)) {
+                budget.release();
+            } else if (state.compareAndSet(WAITING, DONE)) {
+                budget.remove(this);
+            }
+        }
+    }
+}
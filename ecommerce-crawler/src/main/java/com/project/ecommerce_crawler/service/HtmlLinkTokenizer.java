@@ -0,0 +1,451 @@
+package com.project.ecommerce_crawler.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Incremental, allocation-light HTML scanner that only reports
+ * {@code <a href>} and {@code <link rel=canonical href>} values. Input can be
+ * fed in arbitrary chunks (e.g. network buffers); no DOM and no copy of the
+ * page is ever built. Comments and the contents of {@code <script>} and
+ * {@code <style>} are skipped. With structured data enabled it also reports
+ * whether the page declares itself a product, through
+ * {@code <meta property="og:type" content="product">} or a JSON-LD block whose
+ * {@code @type} is {@code Product}; JSON-LD is scanned for {@code "@type"}
+ * keys on the fly, never parsed.
+ */
+public final class HtmlLinkTokenizer {
+
+    public interface Handler {
+        void onAnchor(String href);
+
+        void onCanonical(String href);
+
+        void onProductMarkup();
+    }
+
+    private enum State {
+        TEXT, TAG_START, TAG_NAME, END_TAG, MARKUP_DECLARATION, COMMENT, BOGUS,
+        IN_TAG, ATTR_NAME, AFTER_ATTR_NAME, BEFORE_VALUE, VALUE_QUOTED, VALUE_UNQUOTED, RAW_TEXT
+    }
+
+    private enum Tag {
+        A, LINK, META, SCRIPT, STYLE, OTHER
+    }
+
+    private enum Attribute {
+        HREF, REL, PROPERTY, CONTENT, TYPE, OTHER
+    }
+
+    private static final int MAX_NAME_LENGTH = 16;
+    private static final byte[] SCRIPT_END = "</script".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] STYLE_END = "</style".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JSON_LD_TYPE = "\"@type\"".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_TYPE_LENGTH = 128;
+
+    private final Handler handler;
+    private final byte[] name = new byte[MAX_NAME_LENGTH];
+    private final byte[] value;
+    private final boolean structuredData;
+    private final byte[] typeValue = new byte[MAX_TYPE_LENGTH];
+    private State state = State.TEXT;
+    private Tag tag = Tag.OTHER;
+    private Attribute attribute = Attribute.OTHER;
+    private int nameLength;
+    private int valueLength;
+    private boolean capturing;
+    private boolean valueOverflow;
+    private byte quote;
+    private int dashes;
+    private byte[] rawTextEnd;
+    private int rawTextMatched;
+    private String href;
+    private String rel;
+    private String property;
+    private String content;
+    private String type;
+    private boolean jsonLd;
+    private int typeKeyMatched;
+    private int typeValueLength = -1;
+    private boolean productMarkup;
+
+    public HtmlLinkTokenizer(Handler handler, int maxAttributeLength, boolean structuredData) {
+        this.handler = handler;
+        this.value = new byte[maxAttributeLength];
+        this.structuredData = structuredData;
+    }
+
+    public void feed(ByteBuffer buffer) {
+        for (int i = buffer.position(), limit = buffer.limit(); i < limit; i++) {
+            accept(buffer.get(i));
+        }
+    }
+
+    public void feed(byte[] bytes, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            accept(bytes[i]);
+        }
+    }
+
+    private void accept(byte b) {
+        switch (state) {
+            case TEXT -> {
+                if (b == '<') {
+                    state = State.TAG_START;
+                }
+            }
+            case TAG_START -> {
+                if (b == '!') {
+                    dashes = 0;
+                    state = State.MARKUP_DECLARATION;
+                } else if (b == '/') {
+                    state = State.END_TAG;
+                } else if (isLetter(b)) {
+                    nameLength = 0;
+                    appendName(b);
+                    state = State.TAG_NAME;
+                } else {
+                    state = b == '<' ? State.TAG_START : State.TEXT;
+                }
+            }
+            case MARKUP_DECLARATION -> {
+                if (b == '-' && ++dashes == 2) {
+                    dashes = 0;
+                    state = State.COMMENT;
+                } else if (b == '>') {
+                    state = State.TEXT;
+                } else if (b != '-') {
+                    state = State.BOGUS;
+                }
+            }
+            case COMMENT -> {
+                if (b == '>' && dashes >= 2) {
+                    state = State.TEXT;
+                } else {
+                    dashes = b == '-' ? dashes + 1 : 0;
+                }
+            }
+            case END_TAG, BOGUS -> {
+                if (b == '>') {
+                    state = State.TEXT;
+                }
+            }
+            case TAG_NAME -> {
+                if (isLetter(b) || isDigit(b)) {
+                    appendName(b);
+                    return;
+                }
+                tag = resolveTag();
+                href = null;
+                rel = null;
+                property = null;
+                content = null;
+                type = null;
+                if (b == '>') {
+                    endOfTag();
+                } else {
+                    state = State.IN_TAG;
+                }
+            }
+            case IN_TAG -> {
+                if (b == '>') {
+                    endOfTag();
+                } else if (!isWhitespace(b) && b != '/') {
+                    startAttribute(b);
+                }
+            }
+            case ATTR_NAME -> {
+                if (b == '=') {
+                    attribute = resolveAttribute();
+                    state = State.BEFORE_VALUE;
+                } else if (b == '>') {
+                    endOfTag();
+                } else if (isWhitespace(b)) {
+                    state = State.AFTER_ATTR_NAME;
+                } else if (b == '/') {
+                    state = State.IN_TAG;
+                } else {
+                    appendName(b);
+                }
+            }
+            case AFTER_ATTR_NAME -> {
+                if (b == '=') {
+                    attribute = resolveAttribute();
+                    state = State.BEFORE_VALUE;
+                } else if (b == '>') {
+                    endOfTag();
+                } else if (!isWhitespace(b) && b != '/') {
+                    startAttribute(b);
+                }
+            }
+            case BEFORE_VALUE -> {
+                if (isWhitespace(b)) {
+                    return;
+                }
+                startValue();
+                if (b == '"' || b == '\'') {
+                    quote = b;
+                    state = State.VALUE_QUOTED;
+                } else if (b == '>') {
+                    endOfTag();
+                } else {
+                    appendValue(b);
+                    state = State.VALUE_UNQUOTED;
+                }
+            }
+            case VALUE_QUOTED -> {
+                if (b == quote) {
+                    endOfValue();
+                    state = State.IN_TAG;
+                } else {
+                    appendValue(b);
+                }
+            }
+            case VALUE_UNQUOTED -> {
+                if (isWhitespace(b)) {
+                    endOfValue();
+                    state = State.IN_TAG;
+                } else if (b == '>') {
+                    endOfValue();
+                    endOfTag();
+                } else {
+                    appendValue(b);
+                }
+            }
+            case RAW_TEXT -> {
+                if (jsonLd) {
+                    scanJsonLd(b);
+                }
+                byte lower = toLower(b);
+                if (lower == rawTextEnd[rawTextMatched]) {
+                    if (++rawTextMatched == rawTextEnd.length) {
+                        state = State.END_TAG;
+                    }
+                } else {
+                    rawTextMatched = lower == rawTextEnd[0] ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    private void startAttribute(byte b) {
+        nameLength = 0;
+        appendName(b);
+        state = State.ATTR_NAME;
+    }
+
+    private void startValue() {
+        valueLength = 0;
+        valueOverflow = false;
+        capturing = switch (tag) {
+            case A, LINK -> attribute == Attribute.HREF || attribute == Attribute.REL;
+            case META -> structuredData && (attribute == Attribute.PROPERTY || attribute == Attribute.CONTENT);
+            case SCRIPT -> structuredData && attribute == Attribute.TYPE;
+            default -> false;
+        };
+    }
+
+    private void appendName(byte b) {
+        if (nameLength < MAX_NAME_LENGTH) {
+            name[nameLength] = toLower(b);
+        }
+        nameLength++;
+    }
+
+    private void appendValue(byte b) {
+        if (!capturing) {
+            return;
+        }
+        if (valueLength == value.length) {
+            valueOverflow = true;
+            return;
+        }
+        value[valueLength++] = b;
+    }
+
+    private void endOfValue() {
+        if (!capturing || valueOverflow) {
+            return;
+        }
+        String decoded = decodeEntities(new String(value, 0, valueLength, StandardCharsets.UTF_8).trim());
+        if (attribute == Attribute.HREF) {
+            href = decoded;
+        } else if (attribute == Attribute.REL) {
+            rel = decoded;
+        } else if (attribute == Attribute.PROPERTY) {
+            property = decoded;
+        } else if (attribute == Attribute.CONTENT) {
+            content = decoded;
+        } else if (attribute == Attribute.TYPE) {
+            type = decoded;
+        }
+    }
+
+    private void endOfTag() {
+        if (tag == Tag.A && href != null && !href.isEmpty()) {
+            handler.onAnchor(href);
+        } else if (tag == Tag.LINK && href != null && rel != null && containsIgnoreCase(rel, "canonical")) {
+            handler.onCanonical(href);
+        } else if (tag == Tag.META && "og:type".equalsIgnoreCase(property) && content != null
+                && content.toLowerCase(Locale.ROOT).startsWith("product")) {
+            productMarkup();
+        }
+
+        if (tag == Tag.SCRIPT || tag == Tag.STYLE) {
+            rawTextEnd = tag == Tag.SCRIPT ? SCRIPT_END : STYLE_END;
+            rawTextMatched = 0;
+            jsonLd = tag == Tag.SCRIPT && !productMarkup && type != null && containsIgnoreCase(type, "ld+json");
+            typeKeyMatched = 0;
+            typeValueLength = -1;
+            state = State.RAW_TEXT;
+        } else {
+            state = State.TEXT;
+        }
+        tag = Tag.OTHER;
+    }
+
+    private void scanJsonLd(byte b) {
+        if (typeValueLength >= 0) {
+            if (b == ',' || b == '}' || b == ']' || b == '<' || typeValueLength == MAX_TYPE_LENGTH) {
+                String types = new String(typeValue, 0, typeValueLength, StandardCharsets.US_ASCII);
+                typeValueLength = -1;
+                if (types.contains("\"Product\"") || types.contains("/Product\"")) {
+                    productMarkup();
+                }
+            } else {
+                typeValue[typeValueLength++] = b;
+            }
+        } else if (b == JSON_LD_TYPE[typeKeyMatched]) {
+            if (++typeKeyMatched == JSON_LD_TYPE.length) {
+                typeKeyMatched = 0;
+                typeValueLength = 0;
+            }
+        } else {
+            typeKeyMatched = b == JSON_LD_TYPE[0] ? 1 : 0;
+        }
+    }
+
+    private void productMarkup() {
+        jsonLd = false;
+        if (!productMarkup) {
+            productMarkup = true;
+            handler.onProductMarkup();
+        }
+    }
+
+    private Tag resolveTag() {
+        if (nameMatches("a")) {
+            return Tag.A;
+        } else if (nameMatches("link")) {
+            return Tag.LINK;
+        } else if (nameMatches("meta")) {
+            return Tag.META;
+        } else if (nameMatches("script")) {
+            return Tag.SCRIPT;
+        } else if (nameMatches("style")) {
+            return Tag.STYLE;
+        }
+        return Tag.OTHER;
+    }
+
+    private Attribute resolveAttribute() {
+        if (nameMatches("href")) {
+            return Attribute.HREF;
+        } else if (nameMatches("rel")) {
+            return Attribute.REL;
+        } else if (nameMatches("property")) {
+            return Attribute.PROPERTY;
+        } else if (nameMatches("content")) {
+            return Attribute.CONTENT;
+        } else if (nameMatches("type")) {
+            return Attribute.TYPE;
+        }
+        return Attribute.OTHER;
+    }
+
+    private boolean nameMatches(String candidate) {
+        if (nameLength != candidate.length()) {
+            return false;
+        }
+        for (int i = 0; i < nameLength; i++) {
+            if (name[i] != candidate.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String decodeEntities(String text) {
+        int amp = text.indexOf('&');
+        if (amp < 0) {
+            return text;
+        }
+        StringBuilder decoded = new StringBuilder(text.length());
+        decoded.append(text, 0, amp);
+        int i = amp;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int semicolon = c == '&' ? text.indexOf(';', i) : -1;
+            if (semicolon > i + 1 && semicolon - i <= 10) {
+                String entity = text.substring(i + 1, semicolon);
+                int codePoint = entityCodePoint(entity);
+                if (codePoint >= 0) {
+                    decoded.appendCodePoint(codePoint);
+                    i = semicolon + 1;
+                    continue;
+                }
+            }
+            decoded.append(c);
+            i++;
+        }
+        return decoded.toString();
+    }
+
+    private static int entityCodePoint(String entity) {
+        switch (entity) {
+            case "amp":
+                return '&';
+            case "quot":
+                return '"';
+            case "apos":
+                return '\'';
+            case "lt":
+                return '<';
+            case "gt":
+                return '>';
+            default:
+                break;
+        }
+        if (entity.charAt(0) != '#') {
+            return -1;
+        }
+        try {
+            boolean hex = entity.length() > 1 && (entity.charAt(1) == 'x' || entity.charAt(1) == 'X');
+            int codePoint = hex ? Integer.parseInt(entity.substring(2), 16) : Integer.parseInt(entity.substring(1));
+            return Character.isValidCodePoint(codePoint) ? codePoint : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static boolean containsIgnoreCase(String text, String word) {
+        return text.toLowerCase(Locale.ROOT).contains(word);
+    }
+
+    private static boolean isLetter(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+    private static byte toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+}
@@ -0,0 +1,127 @@
+package com.project.ecommerce_crawler.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Service;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class LinkExtractor {
+    private final CrawlerProperties crawlerProperties;
+    private final UrlNormalizer urlNormalizer;
+    private final ProductClassifier productClassifier;
+
+    public Session open(Domain domain) {
+        return new Session(urlNormalizer.base(domain.getUrl()));
+    }
+
+    public PageLinks extract(Domain domain, String html) {
+        Session session = open(domain);
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        session.tokenizer.feed(bytes, 0, bytes.length);
+        return session.finish();
+    }
+
+    public boolean isProductPage(String url) {
+        return productClassifier.isProductUrl(url);
+    }
+
+    public final class Session implements HtmlLinkTokenizer.Handler {
+        private final UrlNormalizer.Base base;
+        private final HtmlLinkTokenizer tokenizer;
+        private final Hasher contentHasher = Hashing.murmur3_128().newHasher();
+        private final Set<String> productUrls = new LinkedHashSet<>();
+        private final Set<String> navigationLinks = new LinkedHashSet<>();
+        private final int maxLinks;
+        private String canonicalUrl;
+        private boolean productMarkup;
+        private long parseNanos;
+
+        private Session(UrlNormalizer.Base base) {
+            CrawlerProperties.Extraction config = crawlerProperties.getExtraction();
+            this.base = base;
+            this.tokenizer = new HtmlLinkTokenizer(this, config.getMaxUrlLength(),
+                    crawlerProperties.getClassifier().isStructuredData());
+            this.maxLinks = config.getMaxLinksPerPage();
+        }
+
+        public void feed(DataBuffer buffer) {
+            long start = System.nanoTime();
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    ByteBuffer byteBuffer = iterator.next();
+                    tokenizer.feed(byteBuffer);
+                    contentHasher.putBytes(byteBuffer);
+                }
+            }
+            parseNanos += System.nanoTime() - start;
+        }
+
+        public void feed(byte[] bytes, int length) {
+            long start = System.nanoTime();
+            tokenizer.feed(bytes, 0, length);
+            contentHasher.putBytes(bytes, 0, length);
+            parseNanos += System.nanoTime() - start;
+        }
+
+        public long parseNanos() {
+            return parseNanos;
+        }
+
+        public long contentHash() {
+            return contentHasher.hash().asLong();
+        }
+
+        public PageLinks finish() {
+            return new PageLinks(new ArrayList<>(productUrls), new ArrayList<>(navigationLinks), canonicalUrl,
+                    productMarkup);
+        }
+
+        @Override
+        public void onAnchor(String href) {
+            if (productUrls.size() + navigationLinks.size() >= maxLinks) {
+                return;
+            }
+            String url = resolve(href);
+            if (url == null) {
+                return;
+            }
+            if (isProductPage(url)) {
+                productUrls.add(url);
+            } else {
+                navigationLinks.add(url);
+            }
+        }
+
+        @Override
+        public void onCanonical(String href) {
+            String url = resolve(href);
+            if (url != null) {
+                canonicalUrl = url;
+            }
+        }
+
+        @Override
+        public void onProductMarkup() {
+            productMarkup = true;
+        }
+
+        private String resolve(String href) {
+            String url = urlNormalizer.normalize(base, href);
+            return url != null && urlNormalizer.hasHost(url, base.host()) ? url : null;
+        }
+    }
+}
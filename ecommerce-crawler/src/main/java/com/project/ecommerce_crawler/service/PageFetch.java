@@ -0,0 +1,13 @@
+package com.project.ecommerce_crawler.service;
+
+public record PageFetch(Outcome outcome, PageLinks links, String etag, String lastModified, long contentHash) {
+
+    public static final PageFetch NOT_MODIFIED = new PageFetch(Outcome.NOT_MODIFIED, null, null, null, 0);
+    public static final PageFetch UNSUPPORTED = new PageFetch(Outcome.UNSUPPORTED, null, null, null, 0);
+
+    public enum Outcome {
+        FETCHED,
+        NOT_MODIFIED,
+        UNSUPPORTED
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.ecommerce_crawler.service;
+
+import java.util.List;
+
+public record PageLinks(List<String> productUrls, List<String> navigationLinks, String canonicalUrl,
+        boolean productMarkup) {
+}
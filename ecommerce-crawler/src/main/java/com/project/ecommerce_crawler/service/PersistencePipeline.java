@@ -0,0 +1,168 @@
+package com.project.ecommerce_crawler.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawledPage;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.ProductUrl;
+import com.project.ecommerce_crawler.repository.DomainRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Single-threaded persistence stage. Fetch and parse stages hand their
+ * results over through a bounded queue and never touch JDBC themselves; when
+ * the queue is full the returned {@link Mono} only completes once there is
+ * room again, which slows the fetchers down instead of exhausting the
+ * connection pool. A failing task or flush is logged and does not stop the
+ * stage; the writers keep batches that failed and retry them on the next
+ * flush.
+ */
+@Slf4j
+@Service
+public class PersistencePipeline {
+    private static final Duration STALL_BACKOFF = Duration.ofMillis(10);
+
+    private final ProductUrlWriter productUrlWriter;
+    private final CrawledPageWriter crawledPageWriter;
+    private final DomainRepository domainRepository;
+    private final CrawlStats crawlStats;
+    private final CrawlerProperties crawlerProperties;
+    private final BlockingQueue<Runnable> queue;
+    private final Timer stallTimer;
+    private final Timer taskTimer;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public PersistencePipeline(ProductUrlWriter productUrlWriter, CrawledPageWriter crawledPageWriter,
+            DomainRepository domainRepository, CrawlStats crawlStats, CrawlerProperties crawlerProperties,
+            MeterRegistry meterRegistry) {
+        this.productUrlWriter = productUrlWriter;
+        this.crawledPageWriter = crawledPageWriter;
+        this.domainRepository = domainRepository;
+        this.crawlStats = crawlStats;
+        this.crawlerProperties = crawlerProperties;
+        this.queue = new ArrayBlockingQueue<>(crawlerProperties.getPersistence().getQueueCapacity());
+        this.stallTimer = Timer.builder("crawler.persistence.stall")
+                .description("Time fetchers waited for room in the persistence queue")
+                .register(meterRegistry);
+        this.taskTimer = Timer.builder("crawler.persistence.task")
+                .description("Time spent executing a persistence task")
+                .register(meterRegistry);
+        Gauge.builder("crawler.persistence.queue.depth", queue, BlockingQueue::size)
+                .description("Tasks waiting for the persistence stage")
+                .register(meterRegistry);
+        Gauge.builder("crawler.persistence.buffered.urls", productUrlWriter, ProductUrlWriter::pending)
+                .description("Product URLs buffered for the next batch insert")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "crawler-persistence"));
+        executor.execute(this::drain);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    public Mono<Void> submitProductUrls(List<ProductUrl> productUrls) {
+        if (productUrls.isEmpty()) {
+            return Mono.empty();
+        }
+        return enqueue(() -> productUrlWriter.submit(productUrls));
+    }
+
+    public Mono<Void> saveCrawledPage(CrawledPage crawledPage) {
+        return enqueue(() -> crawledPageWriter.submit(crawledPage));
+    }
+
+    public Mono<Void> saveDomain(Domain domain) {
+        crawlStats.recordDomain(domain);
+        return enqueue(() -> domainRepository.save(domain));
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private Mono<Void> enqueue(Runnable task) {
+        return Mono.defer(() -> {
+            if (queue.offer(task)) {
+                return Mono.empty();
+            }
+            long start = System.nanoTime();
+            return Mono.fromCallable(() -> queue.offer(task))
+                    .filter(Boolean::booleanValue)
+                    .repeatWhenEmpty(attempts -> attempts.delayElements(STALL_BACKOFF))
+                    .doOnSuccess(offered -> stallTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .then();
+        });
+    }
+
+    private void drain() {
+        long flushIntervalNanos = crawlerProperties.getPersistence().getFlushInterval().toNanos();
+        long nextFlush = System.nanoTime() + flushIntervalNanos;
+        while (running || !queue.isEmpty()) {
+            try {
+                Runnable task = queue.poll(Math.max(0, nextFlush - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (task != null) {
+                    taskTimer.record(task);
+                }
+                if (System.nanoTime() >= nextFlush) {
+                    flush();
+                    nextFlush = System.nanoTime() + flushIntervalNanos;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Persistence task failed", e);
+            }
+        }
+        if (!flush()) {
+            log.error("Final flush failed; {} product URLs and {} page states were not written",
+                    productUrlWriter.pending(), crawledPageWriter.pending());
+        }
+    }
+
+    /**
+     * Flushes both writers, the second one even if the first fails.
+     */
+    private boolean flush() {
+        boolean flushed = true;
+        try {
+            productUrlWriter.flush();
+        } catch (RuntimeException e) {
+            log.error("Writing product URLs failed; {} are kept for the next flush", productUrlWriter.pending(), e);
+            flushed = false;
+        }
+        try {
+            crawledPageWriter.flush();
+        } catch (RuntimeException e) {
+            log.error("Writing page states failed; {} are kept for the next flush", crawledPageWriter.pending(), e);
+            flushed = false;
+        }
+        return flushed;
+    }
+}
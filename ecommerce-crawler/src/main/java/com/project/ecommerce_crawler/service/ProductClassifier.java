@@ -0,0 +1,94 @@
+package com.project.ecommerce_crawler.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+
+/**
+ * Decides from its canonical URL whether a link points at a product page.
+ * The product and exclude patterns of a host are compiled into one regular
+ * expression, {@code ^(?!.*(?:exclude...))...(?:product...)}, matched once
+ * against path and query. Hosts with their own
+ * {@code crawler.classifier.domains[host].product-patterns} use only those;
+ * all others fall back to the global patterns. Verdicts are cached by URL, so
+ * menu and grid links repeated on every page are matched once.
+ */
+@Service
+public class ProductClassifier {
+    private final CrawlerProperties crawlerProperties;
+    private final UrlNormalizer urlNormalizer;
+    private final Map<String, Pattern> patterns = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> verdicts;
+
+    public ProductClassifier(CrawlerProperties crawlerProperties, UrlNormalizer urlNormalizer) {
+        this.crawlerProperties = crawlerProperties;
+        this.urlNormalizer = urlNormalizer;
+        long cacheSize = crawlerProperties.getClassifier().getCacheSize();
+        this.verdicts = cacheSize > 0 ? Caffeine.newBuilder().maximumSize(cacheSize).build() : null;
+    }
+
+    public boolean isProductUrl(String canonicalUrl) {
+        if (verdicts == null) {
+            return classify(canonicalUrl);
+        }
+        Boolean verdict = verdicts.getIfPresent(canonicalUrl);
+        if (verdict == null) {
+            verdict = classify(canonicalUrl);
+            verdicts.put(canonicalUrl, verdict);
+        }
+        return verdict;
+    }
+
+    private boolean classify(String canonicalUrl) {
+        String host = urlNormalizer.host(canonicalUrl);
+        if (host == null) {
+            return false;
+        }
+        int pathStart = canonicalUrl.indexOf('/', canonicalUrl.indexOf("://") + 3);
+        if (pathStart < 0) {
+            return false;
+        }
+        return patterns.computeIfAbsent(host, this::compile)
+                .matcher(canonicalUrl)
+                .region(pathStart, canonicalUrl.length())
+                .find();
+    }
+
+    private Pattern compile(String host) {
+        CrawlerProperties.Classifier config = crawlerProperties.getClassifier();
+        CrawlerProperties.ClassifierRules domainRules = config.getDomains().get(host);
+        if (domainRules == null && host.startsWith("www.")) {
+            domainRules = config.getDomains().get(host.substring(4));
+        }
+
+        List<String> include = config.getProductPatterns();
+        List<String> exclude = config.getExcludePatterns();
+        if (domainRules != null) {
+            if (!domainRules.getProductPatterns().isEmpty()) {
+                include = domainRules.getProductPatterns();
+            }
+            if (!domainRules.getExcludePatterns().isEmpty()) {
+                exclude = domainRules.getExcludePatterns();
+            }
+        }
+        if (include.isEmpty()) {
+            return Pattern.compile("(?!)");
+        }
+        String products = alternation(include);
+        return Pattern.compile(exclude.isEmpty()
+                ? products
+                : "^(?!.*(?:" + alternation(exclude) + ")).*?(?:" + products + ")");
+    }
+
+    private static String alternation(List<String> patterns) {
+        return patterns.stream().map(pattern -> "(?:" + pattern + ")").collect(Collectors.joining("|"));
+    }
+}
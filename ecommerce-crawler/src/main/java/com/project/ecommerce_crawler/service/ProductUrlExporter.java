@@ -0,0 +1,223 @@
+package com.project.ecommerce_crawler.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.ProductUrl;
+
+/**
+ * Reads a domain's product URLs without loading them as entities. Pages are
+ * keyset-paginated on the id, so every page is one index range scan on
+ * {@code (domain_id, id)} however deep a client has paged; exports stream the
+ * same range as NDJSON or CSV through a server-side cursor of
+ * {@code crawler.export.fetch-size} rows, so memory stays constant for any
+ * number of rows. Both can be limited to URLs discovered at or after a
+ * {@code since} timestamp to pull deltas. Every query is bound to one
+ * domain, so on the partitioned table it reads a single partition; stored
+ * paths are resolved against the domain's origin once per request.
+ */
+@Service
+public class ProductUrlExporter {
+    private static final String SELECT =
+            "SELECT id, path, url_hash, discovered_at FROM product_url WHERE domain_id = ? AND id > ?";
+    private static final String SINCE = " AND discovered_at >= ?";
+    private static final String ORDER = " ORDER BY id";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CrawlerProperties crawlerProperties;
+
+    public ProductUrlExporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            CrawlerProperties crawlerProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.crawlerProperties = crawlerProperties;
+    }
+
+    public Page page(long domainId, LocalDateTime since, long after, Integer limit) {
+        CrawlerProperties.Export config = crawlerProperties.getExport();
+        int size = Math.max(1, Math.min(limit == null ? config.getPageSize() : limit, config.getMaxPageSize()));
+        List<Object> parameters = parameters(domainId, since, after);
+        parameters.add(size);
+        String domainUrl = domainUrl(domainId);
+        RowMapper<Row> rowMapper = (resultSet, rowNum) -> row(resultSet, domainUrl);
+        List<Row> rows = jdbcTemplate.query(sql(since) + " LIMIT ?", rowMapper, parameters.toArray());
+        Long next = rows.size() == size ? rows.get(rows.size() - 1).id() : null;
+        return new Page(rows, next);
+    }
+
+    public void export(long domainId, LocalDateTime since, long after, Format format, OutputStream out) {
+        String sql = sql(since);
+        Object[] parameters = parameters(domainId, since, after).toArray();
+        int fetchSize = crawlerProperties.getExport().getFetchSize();
+        String domainUrl = domainUrl(domainId);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            RowWriter rowWriter = format == Format.CSV ? new CsvWriter(writer) : new NdjsonWriter(writer);
+            // PostgreSQL only honours the fetch size inside a transaction; otherwise it reads the whole result.
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                return statement;
+            }, resultSet -> {
+                try {
+                    rowWriter.write(row(resultSet, domainUrl));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            rowWriter.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String domainUrl(long domainId) {
+        List<String> urls = jdbcTemplate.queryForList("SELECT url FROM domain WHERE id = ?", String.class, domainId);
+        return urls.isEmpty() ? "" : urls.get(0);
+    }
+
+    private static String sql(LocalDateTime since) {
+        return since == null ? SELECT + ORDER : SELECT + SINCE + ORDER;
+    }
+
+    private static List<Object> parameters(long domainId, LocalDateTime since, long after) {
+        List<Object> parameters = new ArrayList<>(4);
+        parameters.add(domainId);
+        parameters.add(after);
+        if (since != null) {
+            parameters.add(Timestamp.valueOf(since));
+        }
+        return parameters;
+    }
+
+    private static Row row(ResultSet resultSet, String domainUrl) throws SQLException {
+        Timestamp discoveredAt = resultSet.getTimestamp(4);
+        return new Row(resultSet.getLong(1), ProductUrl.resolve(domainUrl, resultSet.getString(2)),
+                resultSet.getLong(3), discoveredAt == null ? null : discoveredAt.toLocalDateTime());
+    }
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+    }
+
+    public record Row(long id, String url, long urlHash, LocalDateTime discoveredAt) {
+    }
+
+    /**
+     * @param next the {@code after} value for the following page, or null on the last one
+     */
+    public record Page(List<Row> items, Long next) {
+    }
+
+    private interface RowWriter {
+        void write(Row row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(Writer writer) throws IOException {
+            this.generator = JSON.createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Row row) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.id());
+            generator.writeStringField("url", row.url());
+            generator.writeNumberField("urlHash", row.urlHash());
+            if (row.discoveredAt() != null) {
+                generator.writeStringField("discoveredAt", row.discoveredAt().toString());
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write("id,url,url_hash,discovered_at\r\n");
+        }
+
+        @Override
+        public void write(Row row) throws IOException {
+            writer.write(Long.toString(row.id()));
+            writer.write(',');
+            writeQuoted(row.url());
+            writer.write(',');
+            writer.write(Long.toString(row.urlHash()));
+            writer.write(',');
+            if (row.discoveredAt() != null) {
+                writer.write(row.discoveredAt().toString());
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeQuoted(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
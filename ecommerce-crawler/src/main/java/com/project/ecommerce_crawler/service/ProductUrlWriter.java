@@ -0,0 +1,155 @@
+package com.project.ecommerce_crawler.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.ProductUrl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Write-behind buffer for discovered product URLs. URLs from many pages are
+ * collected and written with a single multi-row
+ * {@code INSERT ... ON CONFLICT DO NOTHING} once the buffer reaches
+ * {@code crawler.persistence.batch-size}, or when the {@link PersistencePipeline}
+ * flushes it on its {@code crawler.persistence.flush-interval}, so duplicates
+ * are rejected by the unique index instead of a per-URL existence query.
+ * Rows are written per domain so that {@link CrawlStats} learns how many URLs
+ * each domain actually gained. A batch that fails to write goes back into the
+ * buffer and is retried on the next flush; until then a full buffer does not
+ * trigger flushes of its own. Every URL must carry the fingerprint of
+ * {@link UrlNormalizer#fingerprint}, which both keys the buffer and lets the
+ * unique index reject a product the crawler already stored.
+ */
+@Service
+public class ProductUrlWriter {
+    private static final String INSERT_PREFIX =
+            "INSERT INTO product_url (id, path, url_hash, domain_id, discovered_at) VALUES ";
+    private static final String INSERT_ROW = "(nextval('product_url_seq'), ?, ?, ?, ?)";
+    private static final String INSERT_SUFFIX = " ON CONFLICT DO NOTHING";
+    private static final int PARAMETERS_PER_ROW = 4;
+    private static final int MAX_PARAMETERS = 32000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CrawlerProperties crawlerProperties;
+    private final FlushMeters flushMeters;
+    private final CrawlStats crawlStats;
+    private final Object flushLock = new Object();
+    private Map<Long, ProductUrl> buffer = new LinkedHashMap<>();
+    private long retryAt;
+
+    public ProductUrlWriter(JdbcTemplate jdbcTemplate, CrawlerProperties crawlerProperties, MeterRegistry meterRegistry,
+            CrawlStats crawlStats) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.crawlerProperties = crawlerProperties;
+        this.flushMeters = new FlushMeters(meterRegistry, "product_url");
+        this.crawlStats = crawlStats;
+    }
+
+    public void submit(Collection<ProductUrl> productUrls) {
+        productUrls.forEach(productUrl -> Objects.requireNonNull(productUrl.getUrlHash(),
+                () -> "Product URL " + productUrl.getUrl() + " has no fingerprint"));
+        boolean full;
+        synchronized (this) {
+            productUrls.forEach(productUrl -> buffer.putIfAbsent(productUrl.getUrlHash(), productUrl));
+            full = buffer.size() >= crawlerProperties.getPersistence().getBatchSize()
+                    && System.nanoTime() - retryAt >= 0;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    public synchronized int pending() {
+        return buffer.size();
+    }
+
+    public int flush() {
+        synchronized (flushLock) {
+            List<ProductUrl> batch;
+            synchronized (this) {
+                if (buffer.isEmpty()) {
+                    return 0;
+                }
+                batch = new ArrayList<>(buffer.values());
+                buffer = new LinkedHashMap<>();
+            }
+            long start = System.nanoTime();
+            int written;
+            try {
+                written = write(batch);
+            } catch (RuntimeException e) {
+                restore(batch);
+                throw e;
+            }
+            flushMeters.record(System.nanoTime() - start, batch.size());
+            return written;
+        }
+    }
+
+    /**
+     * Puts a batch that failed back in front of what was submitted since.
+     * Rows of it that did get written are skipped by the unique index when
+     * it is written again.
+     */
+    private synchronized void restore(List<ProductUrl> batch) {
+        Map<Long, ProductUrl> restored = new LinkedHashMap<>();
+        batch.forEach(productUrl -> restored.put(productUrl.getUrlHash(), productUrl));
+        buffer.forEach(restored::putIfAbsent);
+        buffer = restored;
+        retryAt = System.nanoTime() + crawlerProperties.getPersistence().getFlushInterval().toNanos();
+    }
+
+    private int write(List<ProductUrl> batch) {
+        Map<Long, List<ProductUrl>> byDomain = new LinkedHashMap<>();
+        batch.forEach(productUrl -> byDomain.computeIfAbsent(productUrl.getDomain().getId(), id -> new ArrayList<>())
+                .add(productUrl));
+        int rowsPerStatement = MAX_PARAMETERS / PARAMETERS_PER_ROW;
+        int inserted = 0;
+        for (Map.Entry<Long, List<ProductUrl>> domain : byDomain.entrySet()) {
+            List<ProductUrl> rows = domain.getValue();
+            int domainInserted = 0;
+            for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+                List<ProductUrl> chunk = rows.subList(from, Math.min(rows.size(), from + rowsPerStatement));
+                domainInserted += jdbcTemplate.update(insertSql(chunk.size()), parameters(chunk));
+            }
+            crawlStats.recordProductUrls(domain.getKey(), domainInserted);
+            inserted += domainInserted;
+        }
+        return inserted;
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (INSERT_ROW.length() + 2)
+                + INSERT_SUFFIX.length());
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_ROW);
+        }
+        return sql.append(INSERT_SUFFIX).toString();
+    }
+
+    private static Object[] parameters(List<ProductUrl> chunk) {
+        Object[] parameters = new Object[chunk.size() * PARAMETERS_PER_ROW];
+        int i = 0;
+        for (ProductUrl productUrl : chunk) {
+            parameters[i++] = productUrl.getPath();
+            parameters[i++] = productUrl.getUrlHash();
+            parameters[i++] = productUrl.getDomain().getId();
+            parameters[i++] = Timestamp.valueOf(productUrl.getDiscoveredAt());
+        }
+        return parameters;
+    }
+}
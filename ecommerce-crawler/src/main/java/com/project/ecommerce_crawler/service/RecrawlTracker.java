@@ -0,0 +1,137 @@
+package com.project.ecommerce_crawler.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawledPage;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.repository.CrawledPageRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps per-page freshness state between crawls. Pages carry their validators
+ * for conditional GETs, a hash of the last body and an adaptive recrawl
+ * interval that halves when the page changed and grows when it did not, so
+ * pages that rarely change are fetched rarely.
+ */
+@Service
+public class RecrawlTracker {
+    private final CrawledPageRepository crawledPageRepository;
+    private final CrawlerProperties crawlerProperties;
+    private final Counter changedCounter;
+    private final Counter unchangedCounter;
+    private final Counter notModifiedCounter;
+    private final Counter notDueCounter;
+
+    public RecrawlTracker(CrawledPageRepository crawledPageRepository, CrawlerProperties crawlerProperties,
+            MeterRegistry meterRegistry) {
+        this.crawledPageRepository = crawledPageRepository;
+        this.crawlerProperties = crawlerProperties;
+        this.changedCounter = counter(meterRegistry, "changed");
+        this.unchangedCounter = counter(meterRegistry, "unchanged");
+        this.notModifiedCounter = counter(meterRegistry, "not_modified");
+        this.notDueCounter = counter(meterRegistry, "not_due");
+    }
+
+    public Mono<CrawledPage> lookup(Domain domain, String url, long fingerprint, Long parentHash) {
+        return Mono.fromCallable(() -> find(domain, url, fingerprint, parentHash))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Blocking form of {@link #lookup}, for callers on threads that may block.
+     */
+    public CrawledPage find(Domain domain, String url, long fingerprint, Long parentHash) {
+        return crawledPageRepository.findByDomainIdAndUrlHash(domain.getId(), fingerprint)
+                .orElseGet(() -> {
+                    CrawledPage page = new CrawledPage();
+                    page.setDomainId(domain.getId());
+                    page.setUrlHash(fingerprint);
+                    page.setUrl(url);
+                    page.setParentHash(parentHash);
+                    return page;
+                });
+    }
+
+    public Mono<List<String>> knownChildren(CrawledPage page) {
+        return Mono.fromCallable(() -> crawledPageRepository.findUrlsByDomainIdAndParentHash(page.getDomainId(),
+                        page.getUrlHash()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public boolean isDue(CrawledPage page) {
+        CrawlerProperties.Recrawl config = crawlerProperties.getRecrawl();
+        boolean due = !config.isEnabled() || page.getNextFetchAt() == null
+                || !LocalDateTime.now().isBefore(page.getNextFetchAt());
+        if (!due) {
+            notDueCounter.increment();
+        }
+        return due;
+    }
+
+    public void addConditionalHeaders(HttpHeaders headers, CrawledPage page) {
+        if (!crawlerProperties.getRecrawl().isEnabled()) {
+            return;
+        }
+        if (page.getEtag() != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, page.getEtag());
+        }
+        if (page.getLastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, page.getLastModified());
+        }
+    }
+
+    public void recordNotModified(CrawledPage page) {
+        notModifiedCounter.increment();
+        reschedule(page, false, LocalDateTime.now());
+    }
+
+    public boolean recordFetch(CrawledPage page, String etag, String lastModified, long contentHash) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean changed = page.getContentHash() == null || page.getContentHash() != contentHash;
+        (changed ? changedCounter : unchangedCounter).increment();
+        page.setEtag(etag);
+        page.setLastModified(lastModified);
+        page.setContentHash(contentHash);
+        if (changed) {
+            page.setLastChangedAt(now);
+        }
+        reschedule(page, changed, now);
+        return changed;
+    }
+
+    private void reschedule(CrawledPage page, boolean changed, LocalDateTime now) {
+        CrawlerProperties.Recrawl config = crawlerProperties.getRecrawl();
+        long min = config.getMinInterval().toSeconds();
+        long max = config.getMaxInterval().toSeconds();
+        long interval;
+        if (page.getFetchedAt() == null) {
+            interval = config.getInitialInterval().toSeconds();
+        } else if (changed) {
+            interval = (long) (page.getRecrawlIntervalSeconds() * config.getChangedFactor());
+        } else {
+            interval = (long) (page.getRecrawlIntervalSeconds() * config.getUnchangedFactor());
+        }
+        interval = Math.max(min, Math.min(max, interval));
+
+        page.setFetchedAt(now);
+        page.setRecrawlIntervalSeconds(interval);
+        page.setNextFetchAt(now.plus(Duration.ofSeconds(interval)));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("crawler.recrawl.pages")
+                .description("Pages by outcome of the freshness check")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,267 @@
+package com.project.ecommerce_crawler.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rules of one robots.txt (RFC 9309) compiled for a single user agent. Allow
+ * and Disallow patterns share one character trie where {@code *} becomes a
+ * self-looping node and a trailing {@code $} an end-anchored terminal, so a
+ * check walks the path once regardless of how many rules the site has. The
+ * longest matching pattern wins and Allow wins ties.
+ */
+public final class RobotsTxt {
+    private static final int NONE = -1;
+    private static final RobotsTxt ALLOW_ALL = new RobotsTxt(new Node(), null, List.of(), false);
+    private static final RobotsTxt UNREACHABLE = new RobotsTxt(new Node(), null, List.of(), true);
+
+    private final Node root;
+    private final Duration crawlDelay;
+    private final List<String> sitemaps;
+    private final boolean unreachable;
+
+    private RobotsTxt(Node root, Duration crawlDelay, List<String> sitemaps, boolean unreachable) {
+        this.root = root;
+        this.crawlDelay = crawlDelay;
+        this.sitemaps = sitemaps;
+        this.unreachable = unreachable;
+    }
+
+    public static RobotsTxt allowAll() {
+        return ALLOW_ALL;
+    }
+
+    public static RobotsTxt unreachable() {
+        return UNREACHABLE;
+    }
+
+    public static RobotsTxt parse(String content, String userAgent) {
+        String agent = userAgent.toLowerCase(Locale.ROOT);
+        Group specific = new Group();
+        Group wildcard = new Group();
+        List<String> sitemaps = new ArrayList<>();
+        List<Group> current = new ArrayList<>();
+        boolean collectingAgents = false;
+
+        for (String rawLine : content.split("\r\n|\r|\n")) {
+            int comment = rawLine.indexOf('#');
+            String line = (comment >= 0 ? rawLine.substring(0, comment) : rawLine).strip();
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String key = line.substring(0, colon).strip().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).strip();
+
+            switch (key) {
+                case "user-agent" -> {
+                    if (!collectingAgents) {
+                        current.clear();
+                        collectingAgents = true;
+                    }
+                    String token = value.toLowerCase(Locale.ROOT);
+                    int version = token.indexOf('/');
+                    if (version >= 0) {
+                        token = token.substring(0, version);
+                    }
+                    if (token.equals(agent)) {
+                        current.add(specific);
+                    } else if (token.equals("*")) {
+                        current.add(wildcard);
+                    }
+                }
+                case "allow", "disallow" -> {
+                    collectingAgents = false;
+                    if (!value.isEmpty()) {
+                        current.forEach(group -> group.add(value, key.equals("allow")));
+                    }
+                }
+                case "crawl-delay" -> {
+                    collectingAgents = false;
+                    Duration delay = parseDelay(value);
+                    current.forEach(group -> group.crawlDelay(delay));
+                }
+                case "sitemap" -> sitemaps.add(value);
+                default -> {
+                }
+            }
+            current.forEach(group -> group.seen = true);
+        }
+
+        Group group = specific.seen ? specific : wildcard;
+        return new RobotsTxt(group.root, group.crawlDelay, List.copyOf(sitemaps), false);
+    }
+
+    public boolean isUnreachable() {
+        return unreachable;
+    }
+
+    public Duration crawlDelay() {
+        return crawlDelay;
+    }
+
+    public List<String> sitemaps() {
+        return sitemaps;
+    }
+
+    public boolean isAllowed(String url) {
+        if (unreachable) {
+            return false;
+        }
+        String path = pathOf(url);
+        if (path.equals("/robots.txt")) {
+            return true;
+        }
+        int best = match(path);
+        return best == NONE || (best & 1) == 1;
+    }
+
+    private int match(String path) {
+        int best = NONE;
+        List<Node> active = new ArrayList<>();
+        List<Node> next = new ArrayList<>();
+        activate(active, root);
+        for (int i = 0; i < path.length() && !active.isEmpty(); i++) {
+            char c = path.charAt(i);
+            next.clear();
+            for (Node node : active) {
+                best = Math.max(best, node.prefixRule);
+                Node child = node.child(c);
+                if (child != null) {
+                    activate(next, child);
+                }
+                if (node.wildcard) {
+                    activate(next, node);
+                }
+            }
+            List<Node> swap = active;
+            active = next;
+            next = swap;
+        }
+        for (Node node : active) {
+            best = Math.max(best, Math.max(node.prefixRule, node.anchoredRule));
+        }
+        return best;
+    }
+
+    private static void activate(List<Node> states, Node node) {
+        if (!states.contains(node)) {
+            states.add(node);
+        }
+        if (node.star != null) {
+            activate(states, node.star);
+        }
+    }
+
+    private static String pathOf(String url) {
+        int scheme = url.indexOf("://");
+        int start = scheme < 0 ? 0 : url.indexOf('/', scheme + 3);
+        if (start < 0) {
+            return "/";
+        }
+        int fragment = url.indexOf('#', start);
+        return fragment < 0 ? url.substring(start) : url.substring(start, fragment);
+    }
+
+    private static Duration parseDelay(String value) {
+        try {
+            double seconds = Double.parseDouble(value);
+            return seconds >= 0 ? Duration.ofMillis((long) (seconds * 1000)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Group {
+        private final Node root = new Node();
+        private Duration crawlDelay;
+        private boolean seen;
+
+        private void add(String pattern, boolean allow) {
+            int rule = pattern.length() * 2 + (allow ? 1 : 0);
+            boolean anchored = pattern.endsWith("$");
+            int end = anchored ? pattern.length() - 1 : pattern.length();
+            if (!anchored) {
+                while (end > 0 && pattern.charAt(end - 1) == '*') {
+                    end--;
+                }
+            }
+
+            Node node = root;
+            for (int i = 0; i < end; i++) {
+                char c = pattern.charAt(i);
+                if (c == '*') {
+                    if (!node.wildcard) {
+                        node = node.star();
+                    }
+                } else if (c == '%' && i + 2 < end) {
+                    node = node.add('%')
+                            .add(Character.toUpperCase(pattern.charAt(i + 1)))
+                            .add(Character.toUpperCase(pattern.charAt(i + 2)));
+                    i += 2;
+                } else {
+                    node = node.add(c);
+                }
+            }
+            if (anchored) {
+                node.anchoredRule = Math.max(node.anchoredRule, rule);
+            } else {
+                node.prefixRule = Math.max(node.prefixRule, rule);
+            }
+        }
+
+        private void crawlDelay(Duration delay) {
+            if (delay != null && (crawlDelay == null || delay.compareTo(crawlDelay) > 0)) {
+                crawlDelay = delay;
+            }
+        }
+    }
+
+    private static final class Node {
+        private final boolean wildcard;
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Node star;
+        private int prefixRule = NONE;
+        private int anchoredRule = NONE;
+
+        private Node() {
+            this(false);
+        }
+
+        private Node(boolean wildcard) {
+            this.wildcard = wildcard;
+        }
+
+        private Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node add(char c) {
+            Node child = child(c);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        private Node star() {
+            if (star == null) {
+                star = new Node(true);
+            }
+            return star;
+        }
+    }
+}
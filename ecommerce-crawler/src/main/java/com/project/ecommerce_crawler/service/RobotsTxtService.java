@@ -0,0 +1,119 @@
+package com.project.ecommerce_crawler.service;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-origin cache of compiled {@link RobotsTxt} rules. Entries are refreshed
+ * in the background once {@code crawler.robots.refresh-interval} has passed,
+ * so crawls keep using the previous rules while the new file is fetched. An
+ * unreachable robots.txt (5xx or network error) is cached only for
+ * {@code crawler.robots.unreachable-ttl}. Up to five redirects are followed,
+ * as RFC 9309 asks, so sites that move robots.txt to another host or to https
+ * keep their rules. Only the first 512 KB of a file are read and parsed;
+ * the rest is never buffered.
+ */
+@Service
+public class RobotsTxtService {
+    private static final int MAX_SIZE = 512 * 1024;
+    private static final int MAX_REDIRECTS = 5;
+
+    private final WebClient webClient;
+    private final CrawlerProperties crawlerProperties;
+    private final AsyncLoadingCache<String, RobotsTxt> cache;
+
+    public RobotsTxtService(WebClient webClient, CrawlerProperties crawlerProperties) {
+        this.webClient = webClient;
+        this.crawlerProperties = crawlerProperties;
+        CrawlerProperties.Robots config = crawlerProperties.getRobots();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxHosts())
+                .refreshAfterWrite(config.getRefreshInterval())
+                .expireAfter(new RulesExpiry(config))
+                .buildAsync(this::load);
+    }
+
+    public Mono<RobotsTxt> rules(String url) {
+        return Mono.fromFuture(() -> cache.get(originOf(url)), true);
+    }
+
+    private CompletableFuture<RobotsTxt> load(String origin, Executor executor) {
+        return fetch(URI.create(origin + "/robots.txt"), MAX_REDIRECTS)
+                .onErrorReturn(RobotsTxt.unreachable())
+                .toFuture();
+    }
+
+    private Mono<RobotsTxt> fetch(URI uri, int redirectsLeft) {
+        String userAgent = crawlerProperties.getRobots().getUserAgent();
+        return webClient.get()
+                .uri(uri)
+                .exchangeToMono(response -> {
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return DataBufferUtils.join(DataBufferUtils.takeUntilByteCount(
+                                        response.bodyToFlux(DataBuffer.class), MAX_SIZE))
+                                .map(RobotsTxtService::decode)
+                                .defaultIfEmpty("")
+                                .map(body -> RobotsTxt.parse(body, userAgent));
+                    }
+                    URI location = response.statusCode().is3xxRedirection()
+                            ? response.headers().asHttpHeaders().getLocation()
+                            : null;
+                    if (location != null && redirectsLeft > 0) {
+                        return response.releaseBody().then(fetch(uri.resolve(location), redirectsLeft - 1));
+                    }
+                    // RFC 9309 treats a redirect chain that does not end in a file like a missing file.
+                    RobotsTxt fallback = response.statusCode().is5xxServerError()
+                            ? RobotsTxt.unreachable()
+                            : RobotsTxt.allowAll();
+                    return response.releaseBody().thenReturn(fallback);
+                });
+    }
+
+    private static String decode(DataBuffer buffer) {
+        try {
+            return buffer.toString(StandardCharsets.UTF_8);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    static String originOf(String url) {
+        int scheme = url.indexOf("://");
+        int path = scheme < 0 ? -1 : url.indexOf('/', scheme + 3);
+        String origin = path < 0 ? url : url.substring(0, path);
+        return origin.toLowerCase(Locale.ROOT);
+    }
+
+    private record RulesExpiry(CrawlerProperties.Robots config) implements Expiry<String, RobotsTxt> {
+
+        @Override
+        public long expireAfterCreate(String origin, RobotsTxt robotsTxt, long currentTime) {
+            return (robotsTxt.isUnreachable() ? config.getUnreachableTtl() : config.getTtl()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String origin, RobotsTxt robotsTxt, long currentTime, long currentDuration) {
+            return expireAfterCreate(origin, robotsTxt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String origin, RobotsTxt robotsTxt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
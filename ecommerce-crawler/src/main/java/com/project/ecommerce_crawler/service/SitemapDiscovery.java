@@ -0,0 +1,148 @@
+package com.project.ecommerce_crawler.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Discovers product URLs from the sitemaps a site lists in robots.txt.
+ * Sitemap indexes are expanded depth-first and plain or gzip-compressed
+ * sitemaps are streamed through {@link SitemapReader}; entries whose
+ * {@code lastmod} predates the domain's previous crawl are skipped. A
+ * sitemap holds its host's connection slot until it has been read to the end.
+ */
+@Slf4j
+@Service
+public class SitemapDiscovery {
+    private static final int MAX_INDEX_DEPTH = 3;
+    private static final int READ_AHEAD_BUFFERS = 16;
+
+    private final WebClient webClient;
+    private final HostPolitenessScheduler hostPolitenessScheduler;
+    private final UrlNormalizer urlNormalizer;
+    private final LinkExtractor linkExtractor;
+    private final CrawlerProperties crawlerProperties;
+    private final Counter discoveredCounter;
+    private final Counter unchangedCounter;
+
+    public SitemapDiscovery(WebClient webClient, HostPolitenessScheduler hostPolitenessScheduler,
+            UrlNormalizer urlNormalizer, LinkExtractor linkExtractor, CrawlerProperties crawlerProperties,
+            MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.hostPolitenessScheduler = hostPolitenessScheduler;
+        this.urlNormalizer = urlNormalizer;
+        this.linkExtractor = linkExtractor;
+        this.crawlerProperties = crawlerProperties;
+        this.discoveredCounter = Counter.builder("crawler.sitemap.urls")
+                .description("Sitemap entries read")
+                .tag("outcome", "read")
+                .register(meterRegistry);
+        this.unchangedCounter = Counter.builder("crawler.sitemap.urls")
+                .description("Sitemap entries read")
+                .tag("outcome", "unchanged")
+                .register(meterRegistry);
+    }
+
+    public Flux<String> productUrls(Domain domain, List<String> sitemaps) {
+        String host = urlNormalizer.base(domain.getUrl()).host();
+        LocalDateTime since = domain.getLastCrawledAt();
+        Set<String> visited = ConcurrentHashMap.newKeySet();
+
+        return Flux.fromIterable(sitemaps)
+                .concatMap(sitemap -> expand(sitemap, 0, since, visited))
+                .filter(entry -> isChanged(entry, since))
+                .mapNotNull(entry -> urlNormalizer.normalize(entry.loc()))
+                .filter(url -> urlNormalizer.hasHost(url, host) && linkExtractor.isProductPage(url));
+    }
+
+    private Flux<SitemapReader.Entry> expand(String sitemap, int depth, LocalDateTime since, Set<String> visited) {
+        if (visited.size() >= crawlerProperties.getDiscovery().getMaxSitemaps() || !visited.add(sitemap)) {
+            return Flux.empty();
+        }
+        return Flux.defer(() -> {
+            List<String> children = new ArrayList<>();
+            return read(sitemap)
+                    .filter(entry -> {
+                        if (!entry.index()) {
+                            discoveredCounter.increment();
+                            return true;
+                        }
+                        if (depth < MAX_INDEX_DEPTH && isChanged(entry, since)) {
+                            children.add(entry.loc());
+                        }
+                        return false;
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(children))
+                            .concatMap(child -> expand(child, depth + 1, since, visited)));
+        });
+    }
+
+    private Flux<SitemapReader.Entry> read(String sitemap) {
+        Mono<InputStream> open = Mono.fromCallable(() -> open(sitemap))
+                .subscribeOn(Schedulers.boundedElastic());
+        return hostPolitenessScheduler.schedule(sitemap, open, input -> Flux.using(
+                        () -> new SitemapReader(input),
+                        reader -> Flux.fromIterable(() -> reader),
+                        reader -> {
+                            try {
+                                reader.close();
+                            } catch (IOException e) {
+                                log.debug("Failed to close sitemap {}", sitemap, e);
+                            }
+                        }))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("Skipping sitemap {}: {}", sitemap, e.toString());
+                    return Flux.empty();
+                });
+    }
+
+    private InputStream open(String sitemap) throws IOException {
+        Flux<DataBuffer> body = webClient.get()
+                .uri(sitemap)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+        InputStream input = new BufferedInputStream(DataBufferUtils.subscriberInputStream(body, READ_AHEAD_BUFFERS));
+        try {
+            input.mark(2);
+            int first = input.read();
+            int second = input.read();
+            input.reset();
+            return first == 0x1f && second == 0x8b ? new GZIPInputStream(input, 64 * 1024) : input;
+        } catch (IOException | RuntimeException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    private boolean isChanged(SitemapReader.Entry entry, LocalDateTime since) {
+        if (since == null || entry.lastModified() == null || !entry.lastModified().isBefore(since)) {
+            return true;
+        }
+        if (!entry.index()) {
+            unchangedCounter.increment();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,132 @@
+package com.project.ecommerce_crawler.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Pull-based iterator over the {@code <url>} or {@code <sitemap>} entries of
+ * a sitemap or sitemap index. Entries are read with StAX as they are
+ * requested, so a 50 MB sitemap is never held in memory. Only {@code loc} and
+ * {@code lastmod} elements directly under an entry are read, which keeps
+ * extension elements such as {@code <image:loc>} out.
+ */
+public final class SitemapReader implements Iterator<SitemapReader.Entry>, Closeable {
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    public record Entry(String loc, LocalDateTime lastModified, boolean index) {
+    }
+
+    private final InputStream input;
+    private final XMLStreamReader reader;
+    private Entry next;
+    private int depth;
+    private int entryDepth = -1;
+    private boolean index;
+    private String loc;
+    private LocalDateTime lastModified;
+
+    public SitemapReader(InputStream input) {
+        this.input = input;
+        try {
+            this.reader = FACTORY.createXMLStreamReader(input);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Cannot read sitemap", e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Entry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Entry entry = next;
+        next = null;
+        return entry;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            input.close();
+        }
+    }
+
+    private Entry advance() {
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (entryDepth < 0 && (name.equals("url") || name.equals("sitemap"))) {
+                        entryDepth = depth;
+                        index = name.equals("sitemap");
+                        loc = null;
+                        lastModified = null;
+                    } else if (entryDepth >= 0 && depth == entryDepth + 1 && name.equals("loc")) {
+                        loc = reader.getElementText().strip();
+                        continue;
+                    } else if (entryDepth >= 0 && depth == entryDepth + 1 && name.equals("lastmod")) {
+                        lastModified = parseLastModified(reader.getElementText().strip());
+                        continue;
+                    }
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                    if (depth == entryDepth) {
+                        entryDepth = -1;
+                        if (loc != null && !loc.isEmpty()) {
+                            return new Entry(loc, lastModified, index);
+                        }
+                    }
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Malformed sitemap", e);
+        }
+    }
+
+    static LocalDateTime parseLastModified(String value) {
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
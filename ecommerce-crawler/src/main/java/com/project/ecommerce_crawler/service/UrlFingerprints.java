@@ -0,0 +1,17 @@
+package com.project.ecommerce_crawler.service;
+
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+public final class UrlFingerprints {
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private UrlFingerprints() {
+    }
+
+    public static long of(String url) {
+        return HASH.hashString(url, StandardCharsets.UTF_8).asLong();
+    }
+}
@@ -0,0 +1,370 @@
+package com.project.ecommerce_crawler.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Service;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Turns raw hrefs into one canonical form per page: resolves relative and
+ * protocol-relative links, lower-cases scheme and host, drops default ports,
+ * user info, fragments and {@code ;jsessionid} path parameters, removes dot
+ * segments and strips tracking/sort/filter query parameters before sorting the
+ * rest. Works on index ranges of the input and builds the result in a single
+ * {@link StringBuilder}.
+ */
+@Service
+@RequiredArgsConstructor
+public class UrlNormalizer {
+    private static final String JSESSIONID = ";jsessionid";
+
+    private final CrawlerProperties crawlerProperties;
+    private final Map<String, Rules> rules = new ConcurrentHashMap<>();
+
+    public Base base(String baseUrl) {
+        String normalized = normalize(null, baseUrl);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Not an absolute http(s) URL: " + baseUrl);
+        }
+        int authorityStart = normalized.indexOf("://") + 3;
+        int pathStart = normalized.indexOf('/', authorityStart);
+        int query = normalized.indexOf('?', pathStart);
+        String path = query < 0 ? normalized.substring(pathStart) : normalized.substring(pathStart, query);
+        return new Base(normalized.substring(0, pathStart), path, path.substring(0, path.lastIndexOf('/') + 1),
+                host(normalized));
+    }
+
+    public String normalize(String url) {
+        return normalize(null, url);
+    }
+
+    public String normalize(Base base, String href) {
+        String s = href.trim();
+        int end = s.indexOf('#');
+        if (end < 0) {
+            end = s.length();
+        }
+        if (end == 0) {
+            return null;
+        }
+
+        int colon = schemeEnd(s, end);
+        if (colon < 0) {
+            if (base == null) {
+                return null;
+            }
+            return normalize(null, resolve(base, s, end));
+        }
+        if (!s.startsWith("//", colon + 1)) {
+            return null;
+        }
+        String scheme = s.substring(0, colon).toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            return null;
+        }
+
+        int authorityStart = colon + 3;
+        int authorityEnd = indexOfAny(s, authorityStart, end, '/', '?');
+        int hostStart = s.lastIndexOf('@', authorityEnd - 1) + 1;
+        if (hostStart < authorityStart) {
+            hostStart = authorityStart;
+        }
+        int portSeparator = s.lastIndexOf(':', authorityEnd - 1);
+        int hostEnd = portSeparator >= hostStart && s.charAt(hostStart) != '[' ? portSeparator : authorityEnd;
+        while (hostEnd > hostStart && s.charAt(hostEnd - 1) == '.') {
+            hostEnd--;
+        }
+        if (hostEnd == hostStart) {
+            return null;
+        }
+
+        StringBuilder out = new StringBuilder(end + 8);
+        out.append(scheme).append("://");
+        for (int i = hostStart; i < hostEnd; i++) {
+            out.append(Character.toLowerCase(s.charAt(i)));
+        }
+        String host = out.substring(scheme.length() + 3);
+        if (portSeparator >= hostStart && hostEnd < authorityEnd) {
+            int portStart = portSeparator + 1;
+            for (int i = portStart; i < authorityEnd; i++) {
+                if (!Character.isDigit(s.charAt(i))) {
+                    return null;
+                }
+            }
+            if (portStart < authorityEnd && !isDefaultPort(scheme, s, portStart, authorityEnd)) {
+                out.append(':').append(s, portStart, authorityEnd);
+            }
+        }
+
+        int queryStart = s.indexOf('?', authorityEnd);
+        int pathEnd = queryStart >= 0 && queryStart < end ? queryStart : end;
+        appendPath(out, s, authorityEnd, pathEnd);
+        if (pathEnd < end) {
+            appendQuery(out, s, pathEnd + 1, end, rules(host));
+        }
+        return out.toString();
+    }
+
+    public long fingerprint(String canonicalUrl) {
+        String host = host(canonicalUrl);
+        String productId = host == null ? null : productId(host, canonicalUrl);
+        return UrlFingerprints.of(productId == null ? canonicalUrl : host + '\n' + productId);
+    }
+
+    public String productId(String canonicalUrl) {
+        String host = host(canonicalUrl);
+        return host == null ? null : productId(host, canonicalUrl);
+    }
+
+    public boolean hasHost(String canonicalUrl, String host) {
+        int start = canonicalUrl.indexOf("://");
+        if (start < 0) {
+            return false;
+        }
+        start += 3;
+        int next = start + host.length();
+        return canonicalUrl.regionMatches(start, host, 0, host.length())
+                && (next == canonicalUrl.length() || canonicalUrl.charAt(next) == '/' || canonicalUrl.charAt(next) == ':');
+    }
+
+    public String host(String canonicalUrl) {
+        int start = canonicalUrl.indexOf("://");
+        if (start < 0) {
+            return null;
+        }
+        start += 3;
+        return canonicalUrl.substring(start, indexOfAny(canonicalUrl, start, canonicalUrl.length(), '/', ':'));
+    }
+
+    private String productId(String host, String canonicalUrl) {
+        Pattern pattern = rules(host).productId;
+        if (pattern == null) {
+            return null;
+        }
+        Matcher matcher = pattern.matcher(canonicalUrl);
+        if (!matcher.find()) {
+            return null;
+        }
+        return matcher.groupCount() > 0 ? matcher.group(1) : matcher.group();
+    }
+
+    private static String resolve(Base base, String s, int end) {
+        StringBuilder absolute = new StringBuilder(base.origin.length() + base.path.length() + end);
+        absolute.append(base.origin);
+        if (s.startsWith("//")) {
+            return absolute.substring(0, absolute.indexOf("://") + 1) + s.substring(0, end);
+        } else if (s.charAt(0) == '/') {
+            absolute.append(s, 0, end);
+        } else if (s.charAt(0) == '?') {
+            absolute.append(base.path).append(s, 0, end);
+        } else {
+            absolute.append(base.directory).append(s, 0, end);
+        }
+        return absolute.toString();
+    }
+
+    private static void appendPath(StringBuilder out, String s, int start, int end) {
+        int pathStart = out.length();
+        if (start == end) {
+            out.append('/');
+            return;
+        }
+        int i = start;
+        while (i < end) {
+            int segmentStart = s.charAt(i) == '/' ? i + 1 : i;
+            int segmentEnd = indexOfAny(s, segmentStart, end, '/', '/');
+            boolean last = segmentEnd == end;
+            int length = segmentEnd - segmentStart;
+            if (length == 1 && s.charAt(segmentStart) == '.') {
+                if (last) {
+                    out.append('/');
+                }
+            } else if (length == 2 && s.charAt(segmentStart) == '.' && s.charAt(segmentStart + 1) == '.') {
+                int cut = out.lastIndexOf("/");
+                if (cut >= pathStart) {
+                    out.setLength(cut);
+                }
+                if (last) {
+                    out.append('/');
+                }
+            } else {
+                out.append('/');
+                appendSegment(out, s, segmentStart, segmentEnd);
+            }
+            i = segmentEnd;
+        }
+        if (out.length() == pathStart) {
+            out.append('/');
+        }
+    }
+
+    private static void appendSegment(StringBuilder out, String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == ';' && s.regionMatches(true, i, JSESSIONID, 0, JSESSIONID.length())) {
+                return;
+            }
+            if (c == '%' && i + 2 < end) {
+                out.append('%')
+                        .append(Character.toUpperCase(s.charAt(i + 1)))
+                        .append(Character.toUpperCase(s.charAt(i + 2)));
+                i += 2;
+            } else if (c == ' ') {
+                out.append("%20");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    private static void appendQuery(StringBuilder out, String s, int start, int end, Rules rules) {
+        int[] params = new int[16];
+        int count = 0;
+        int i = start;
+        while (i <= end) {
+            int paramEnd = indexOfAny(s, i, end, '&', '&');
+            if (paramEnd > i && !rules.strips(s, i, paramEnd)) {
+                if (count * 2 == params.length) {
+                    params = Arrays.copyOf(params, params.length * 2);
+                }
+                params[count * 2] = i;
+                params[count * 2 + 1] = paramEnd;
+                count++;
+            }
+            i = paramEnd + 1;
+        }
+        if (count == 0) {
+            return;
+        }
+        for (int a = 1; a < count; a++) {
+            int from = params[a * 2];
+            int to = params[a * 2 + 1];
+            int b = a - 1;
+            while (b >= 0 && compare(s, params[b * 2], params[b * 2 + 1], from, to) > 0) {
+                params[(b + 1) * 2] = params[b * 2];
+                params[(b + 1) * 2 + 1] = params[b * 2 + 1];
+                b--;
+            }
+            params[(b + 1) * 2] = from;
+            params[(b + 1) * 2 + 1] = to;
+        }
+        out.append('?');
+        for (int p = 0; p < count; p++) {
+            if (p > 0) {
+                out.append('&');
+            }
+            out.append(s, params[p * 2], params[p * 2 + 1]);
+        }
+    }
+
+    private static int compare(String s, int aStart, int aEnd, int bStart, int bEnd) {
+        int length = Math.min(aEnd - aStart, bEnd - bStart);
+        for (int i = 0; i < length; i++) {
+            int diff = s.charAt(aStart + i) - s.charAt(bStart + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return (aEnd - aStart) - (bEnd - bStart);
+    }
+
+    private static int schemeEnd(String s, int end) {
+        for (int i = 0; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == ':') {
+                return i > 0 ? i : -1;
+            }
+            boolean valid = Character.isLetter(c) || (i > 0 && (Character.isDigit(c) || c == '+' || c == '-' || c == '.'));
+            if (!valid) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDefaultPort(String scheme, String s, int start, int end) {
+        String port = scheme.equals("https") ? "443" : "80";
+        return end - start == port.length() && s.startsWith(port, start);
+    }
+
+    private static int indexOfAny(String s, int from, int end, char a, char b) {
+        for (int i = from; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == a || c == b) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private Rules rules(String host) {
+        return rules.computeIfAbsent(host, this::compile);
+    }
+
+    private Rules compile(String host) {
+        CrawlerProperties.Normalization config = crawlerProperties.getNormalization();
+        CrawlerProperties.DomainRules domainRules = config.getDomains().get(host);
+        if (domainRules == null && host.startsWith("www.")) {
+            domainRules = config.getDomains().get(host.substring(4));
+        }
+
+        List<String> strip = new ArrayList<>(config.getStripParams());
+        Set<String> keep = new HashSet<>();
+        Pattern productId = null;
+        if (domainRules != null) {
+            strip.addAll(domainRules.getStripParams());
+            domainRules.getKeepParams().forEach(name -> keep.add(name.toLowerCase(Locale.ROOT)));
+            if (domainRules.getProductIdPattern() != null) {
+                productId = Pattern.compile(domainRules.getProductIdPattern());
+            }
+        }
+
+        Set<String> names = new HashSet<>();
+        List<String> prefixes = new ArrayList<>();
+        for (String name : strip) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (lower.endsWith("*")) {
+                prefixes.add(lower.substring(0, lower.length() - 1));
+            } else {
+                names.add(lower);
+            }
+        }
+        return new Rules(names, prefixes.toArray(String[]::new), keep, productId);
+    }
+
+    public record Base(String origin, String path, String directory, String host) {
+    }
+
+    private record Rules(Set<String> names, String[] prefixes, Set<String> keep, Pattern productId) {
+
+        private boolean strips(String s, int start, int end) {
+            int nameEnd = indexOfAny(s, start, end, '=', '=');
+            for (String prefix : prefixes) {
+                if (s.regionMatches(true, start, prefix, 0, prefix.length()) && !keeps(s, start, nameEnd)) {
+                    return true;
+                }
+            }
+            if (names.isEmpty()) {
+                return false;
+            }
+            String name = s.substring(start, nameEnd).toLowerCase(Locale.ROOT);
+            return names.contains(name) && !keep.contains(name);
+        }
+
+        private boolean keeps(String s, int start, int nameEnd) {
+            return !keep.isEmpty() && keep.contains(s.substring(start, nameEnd).toLowerCase(Locale.ROOT));
+        }
+    }
+}
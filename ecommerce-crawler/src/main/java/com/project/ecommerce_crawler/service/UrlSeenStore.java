@@ -0,0 +1,162 @@
+package com.project.ecommerce_crawler.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks which URLs a domain's current crawl has already queued. Every crawl
+ * run starts a new epoch with an empty set unless it resumes an interrupted
+ * run, in which case the set is restored from the snapshot written when that
+ * run stopped. The set is an exact off-heap set of 64-bit fingerprints, so no
+ * new URL is ever dropped as a false positive; a lookup and an insert are one
+ * probe sequence.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UrlSeenStore {
+    private static final int SNAPSHOT_MAGIC = 0x55524c53;
+
+    private final CrawlerProperties crawlerProperties;
+    private final Map<Long, SeenSet> sets = new ConcurrentHashMap<>();
+
+    public void open(Domain domain, boolean resume) {
+        sets.compute(domain.getId(), (id, existing) -> {
+            if (resume) {
+                SeenSet restored = existing != null ? existing : restore(id);
+                if (restored != null) {
+                    return restored;
+                }
+            }
+            return newSet(existing != null ? existing.epoch + 1 : nextEpoch(id));
+        });
+    }
+
+    public void close(Domain domain) {
+        SeenSet set = sets.remove(domain.getId());
+        if (set != null) {
+            snapshot(domain.getId(), set);
+        }
+    }
+
+    public boolean markSeen(Domain domain, long fingerprint) {
+        SeenSet set = sets.get(domain.getId());
+        if (set == null) {
+            throw new IllegalStateException("URL-seen store is not open for domain " + domain.getUrl());
+        }
+        return set.add(fingerprint);
+    }
+
+    public long size(Domain domain) {
+        SeenSet set = sets.get(domain.getId());
+        return set == null ? 0 : set.exact.size();
+    }
+
+    public long epoch(Domain domain) {
+        SeenSet set = sets.get(domain.getId());
+        return set == null ? -1 : set.epoch;
+    }
+
+    @PreDestroy
+    public void snapshotAll() {
+        sets.forEach(this::snapshot);
+    }
+
+    private SeenSet newSet(long epoch) {
+        CrawlerProperties.Dedup config = crawlerProperties.getDedup();
+        return new SeenSet(epoch, new FingerprintSet(config.getStripes(), config.getInitialCapacity()));
+    }
+
+    private long nextEpoch(Long domainId) {
+        Path file = snapshotFile(domainId);
+        if (!Files.exists(file)) {
+            return 1;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return in.readInt() == SNAPSHOT_MAGIC ? in.readLong() + 1 : 1;
+        } catch (IOException e) {
+            return 1;
+        }
+    }
+
+    private SeenSet restore(Long domainId) {
+        Path file = snapshotFile(domainId);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                return null;
+            }
+            long epoch = in.readLong();
+            long count = in.readLong();
+            SeenSet set = newSet(epoch);
+            for (long i = 0; i < count; i++) {
+                set.add(in.readLong());
+            }
+            return set;
+        } catch (IOException e) {
+            log.warn("Could not restore URL-seen snapshot {}", file, e);
+            return null;
+        }
+    }
+
+    private void snapshot(Long domainId, SeenSet set) {
+        Path file = snapshotFile(domainId);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(set.epoch);
+                out.writeLong(set.exact.size());
+                set.exact.forEach(fingerprint -> {
+                    try {
+                        out.writeLong(fingerprint);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not write URL-seen snapshot {}", file, e);
+        }
+    }
+
+    private Path snapshotFile(Long domainId) {
+        return Path.of(crawlerProperties.getDedup().getSnapshotDir()).resolve("domain-" + domainId + ".seen");
+    }
+
+    private static final class SeenSet {
+        private final long epoch;
+        private final FingerprintSet exact;
+
+        private SeenSet(long epoch, FingerprintSet exact) {
+            this.epoch = epoch;
+            this.exact = exact;
+        }
+
+        private boolean add(long fingerprint) {
+            return exact.add(fingerprint);
+        }
+    }
+}
@@ -1,174 +1,422 @@
 package com.project.ecommerce_crawler.service;
 
-import com.google.common.hash.BloomFilter;
+import com.project.ecommerce_crawler.config.CrawlerProperties;
 import com.project.ecommerce_crawler.model.CrawlStatus;
+import com.project.ecommerce_crawler.model.CrawledPage;
 import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.FrontierEntry;
 import com.project.ecommerce_crawler.model.ProductUrl;
-import com.project.ecommerce_crawler.repository.DomainRepository;
-import com.project.ecommerce_crawler.repository.ProductUrlRepository;
 
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.select.Elements;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class WebCrawlerService {
-    private static final List<String> PRODUCT_PATH_KEYWORDS = 
-            List.of("/product/", "/item/", "/p/", "/pr/", "-p-", "/prod/");
+    private static final Duration FRONTIER_IDLE_DELAY = Duration.ofMillis(100);
+    private static final double REQUESTED_PRIORITY = Double.MAX_VALUE;
     
-    private final DomainRepository domainRepository;
-    private final ProductUrlRepository productUrlRepository;
     private final WebClient webClient;
-    private final BloomFilter<String> urlBloomFilter;
+    private final UrlSeenStore urlSeenStore;
+    private final CrawlFrontier crawlFrontier;
+    private final HostPolitenessScheduler hostPolitenessScheduler;
+    private final PersistencePipeline persistencePipeline;
+    private final LinkExtractor linkExtractor;
+    private final UrlNormalizer urlNormalizer;
+    private final RobotsTxtService robotsTxtService;
+    private final SitemapDiscovery sitemapDiscovery;
+    private final RecrawlTracker recrawlTracker;
+    private final CrawlCheckpoint crawlCheckpoint;
+    private final FetchLimits fetchLimits;
+    private final CrawlMetrics crawlMetrics;
+    private final CrawlStats crawlStats;
+    private final BlockingCrawlEngine blockingCrawlEngine;
+    private final YieldScorer yieldScorer;
+    private final CrawlerProperties crawlerProperties;
+    private final Map<Long, Set<Long>> refreshes = new ConcurrentHashMap<>();
     
-    @Cacheable("robotsTxt")
-    public Mono<String> fetchRobotsTxt(String baseUrl) {
-        return webClient.get()
-                .uri(baseUrl + "/robots.txt")
-                .retrieve()
-                .bodyToMono(String.class)
-                .onErrorResume(e -> Mono.just(""));
+    /**
+     * Settings of a single run: URLs crawled ahead of everything else and
+     * regardless of their recrawl schedule, and a page budget (null for the
+     * configured one) and deadline after which the run takes no more pages.
+     */
+    public record CrawlOptions(List<String> urls, Long pageBudget, LocalDateTime deadline) {
+        public static final CrawlOptions DEFAULT = new CrawlOptions(List.of(), null, null);
     }
     
     public Flux<ProductUrl> crawlDomain(Domain domain) {
+        return crawlDomain(domain, CrawlOptions.DEFAULT);
+    }
+    
+    public Flux<ProductUrl> crawlDomain(Domain domain, CrawlOptions options) {
+        // Only a run that was interrupted picks up where it stopped; one that
+        // finished with failed pages starts over and retries them on the way.
+        boolean resume = domain.getStatus() == CrawlStatus.IN_PROGRESS || domain.getStatus() == CrawlStatus.FAILED;
+        if (!resume || domain.getCrawlStartedAt() == null) {
+            domain.setCrawlStartedAt(LocalDateTime.now());
+        }
         domain.setStatus(CrawlStatus.IN_PROGRESS);
-        domainRepository.save(domain);
+        crawlStats.startRun(domain);
         
-        return fetchRobotsTxt(domain.getUrl())
+        return persistencePipeline.saveDomain(domain)
+                .then(robotsTxtService.rules(domain.getUrl()))
                 .flatMapMany(robotsTxt -> {
-                    Set<String> disallowedPaths = parseRobotsTxt(robotsTxt);
-                    return crawlPage(domain, domain.getUrl(), disallowedPaths);
+                    if (robotsTxt.isUnreachable()) {
+                        return Flux.error(new IllegalStateException("robots.txt unreachable for " + domain.getUrl()));
+                    }
+                    hostPolitenessScheduler.setCrawlDelay(domain.getUrl(), robotsTxt.crawlDelay());
+                    crawlFrontier.open(domain);
+                    crawlFrontier.limit(domain, options.pageBudget(), options.deadline());
+                    urlSeenStore.open(domain, resume);
+                    crawlCheckpoint.open(domain);
+                    
+                    CrawlerProperties.Discovery.Mode mode = crawlerProperties.getDiscovery().getMode();
+                    boolean useSitemaps = mode != CrawlerProperties.Discovery.Mode.LINKS && !robotsTxt.sitemaps().isEmpty();
+                    boolean followLinks = !useSitemaps || mode == CrawlerProperties.Discovery.Mode.BOTH;
+                    Flux<ProductUrl> fromSitemaps = useSitemaps
+                            ? discoverFromSitemaps(domain, robotsTxt.sitemaps())
+                            : Flux.empty();
+                    if (!followLinks && options.urls().isEmpty()) {
+                        return fromSitemaps;
+                    }
+                    if (!options.urls().isEmpty()) {
+                        refreshes.put(domain.getId(), options.urls().stream()
+                                .map(urlNormalizer::fingerprint)
+                                .collect(Collectors.toSet()));
+                    }
+                    // Without link following only the requested pages are fetched: pages left
+                    // queued by earlier runs are dropped, and the requested ones are queued at
+                    // the maximum depth so that their links are not taken into the frontier.
+                    int requestedDepth = followLinks ? 0 : crawlerProperties.getFrontier().getMaxDepth();
+                    Mono<Void> queued = followLinks ? requeue(domain) : discardSpilled(domain);
+                    Mono<Void> homepage = followLinks
+                            ? Mono.defer(() -> enqueue(domain, urlNormalizer.normalize(domain.getUrl()), 0, null, 0))
+                            : Mono.empty();
+                    return fromSitemaps.concatWith(queued
+                            .thenMany(Flux.fromIterable(options.urls()))
+                            .concatMap(url -> enqueueRequested(domain, url, requestedDepth))
+                            .then(homepage)
+                            .thenMany(Flux.defer(() -> drain(domain))));
                 })
+                .concatWith(Mono.defer(() -> {
+                    boolean halted = crawlFrontier.isHalted(domain);
+                    if (crawlFrontier.isOverBudget(domain)) {
+                        log.info("Crawl budget reached for {}; {} queued pages are left for the next run",
+                                domain.getUrl(), crawlFrontier.size(domain));
+                    }
+                    int failed = crawlCheckpoint.failures(domain);
+                    if (failed > 0) {
+                        log.warn("Crawl of {} finished with {} failed pages; the next run retries them",
+                                domain.getUrl(), failed);
+                    }
+                    domain.setStatus(CrawlStatus.COMPLETED);
+                    if (!halted) {
+                        // Sitemap entries a stopped run did not read must not look unchanged next time.
+                        domain.setLastCrawledAt(LocalDateTime.now());
+                    }
+                    domain.setFailedPages(failed);
+                    return persistencePipeline.saveDomain(domain);
+                }).then(Mono.empty()))
                 .onErrorResume(e -> {
+                    log.warn("Crawl of {} was interrupted: {}", domain.getUrl(), e.toString());
                     domain.setStatus(CrawlStatus.FAILED);
-                    domainRepository.save(domain);
-                    return Flux.empty();
+                    return persistencePipeline.saveDomain(domain).then(Mono.empty());
                 })
-                .doOnComplete(() -> {
-                    domain.setStatus(CrawlStatus.COMPLETED);
-                    domain.setLastCrawledAt(LocalDateTime.now());
-                    domainRepository.save(domain);
+                .doFinally(signal -> {
+                    refreshes.remove(domain.getId());
+                    crawlFrontier.close(domain);
+                    urlSeenStore.close(domain);
+                    crawlCheckpoint.close(domain);
                 });
     }
     
-    private Flux<ProductUrl> crawlPage(Domain domain, String url, Set<String> disallowedPaths) {
-        if (isUrlDisallowed(url, disallowedPaths) || urlBloomFilter.mightContain(url)) {
-            return Flux.empty();
+    private Mono<Void> discardSpilled(Domain domain) {
+        return Mono.<Void>fromRunnable(() -> crawlFrontier.discardSpilled(domain))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    private Mono<Void> requeue(Domain domain) {
+        return discardSpilled(domain)
+                .thenMany(crawlCheckpoint.pending(domain))
+                .doOnNext(pending -> {
+                    urlSeenStore.markSeen(domain, pending.urlHash());
+                    crawlFrontier.offer(domain, pending.url(), pending.depth(), pending.parentHash(),
+                            yieldScorer.score(domain, pending.url(), pending.depth(), 0));
+                    crawlStats.recordQueued(domain);
+                })
+                .then();
+    }
+    
+    private Flux<ProductUrl> discoverFromSitemaps(Domain domain, List<String> sitemaps) {
+        return sitemapDiscovery.productUrls(domain, sitemaps)
+                .takeWhile(url -> !crawlFrontier.isHalted(domain))
+                .buffer(crawlerProperties.getDiscovery().getBatchSize())
+                .concatMap(urls -> {
+                    List<ProductUrl> productUrls = toProductUrls(domain, urls);
+                    return persistencePipeline.submitProductUrls(productUrls)
+                            .thenMany(Flux.fromIterable(productUrls));
+                });
+    }
+    
+    private Flux<ProductUrl> drain(Domain domain) {
+        int workers = crawlerProperties.getFrontier().getWorkersPerDomain();
+        if (blockingCrawlEngine.isEnabled()) {
+            return blockingCrawlEngine.drain(domain, workers, entry -> crawlEntry(domain, entry));
         }
-        
-        urlBloomFilter.put(url);
-        
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(String.class)
-                .flatMapMany(html -> {
-                    List<ProductUrl> productUrls = extractProductUrls(domain, html);
-                    saveProductUrls(productUrls);
-                    
-                    if (isProductPage(url)) {
-                        return Flux.fromIterable(productUrls);
-                    } else {
-                        List<String> links = extractLinks(html, domain.getUrl());
-                        return Flux.fromIterable(links)
-                                .parallel()
-                                .runOn(Schedulers.boundedElastic())
-                                .flatMap(link -> crawlPage(domain, link, disallowedPaths))
-                                .sequential();
+        return Flux.range(0, workers).flatMap(worker -> drainFrontier(domain));
+    }
+    
+    private Flux<ProductUrl> drainFrontier(Domain domain) {
+        return Flux.defer(() -> {
+                    FrontierEntry entry = crawlFrontier.poll(domain);
+                    if (entry == null) {
+                        return Mono.delay(FRONTIER_IDLE_DELAY).thenMany(Flux.<ProductUrl>empty());
                     }
+                    return crawlEntry(domain, entry);
                 })
-                .onErrorResume(e -> Flux.empty());
+                .subscribeOn(Schedulers.boundedElastic())
+                .repeat(() -> !crawlFrontier.isExhausted(domain));
     }
     
-    public boolean isProductPage(String url) {
-        return PRODUCT_PATH_KEYWORDS.stream().anyMatch(url::contains);
+    private Flux<ProductUrl> crawlEntry(Domain domain, FrontierEntry entry) {
+        return crawlPage(domain, entry)
+                .doFinally(signal -> {
+                    crawlFrontier.complete(domain);
+                    crawlStats.recordProcessed(domain);
+                });
     }
     
-    public List<ProductUrl> extractProductUrls(Domain domain, String html) {
-        Document doc = Jsoup.parse(html);
-        Elements links = doc.select("a[href]");
+    private Flux<ProductUrl> crawlPage(Domain domain, FrontierEntry entry) {
+        String url = entry.getUrl();
+        return robotsTxtService.rules(url)
+                .flatMapMany(robotsTxt -> lookup(domain, url, entry.getParentHash())
+                        .flatMapMany(page -> {
+                            page.setDepth(entry.getDepth());
+                            if (!robotsTxt.isAllowed(url)) {
+                                crawlCheckpoint.recordSkipped(page);
+                                return persistencePipeline.saveCrawledPage(page).thenMany(Flux.<ProductUrl>empty());
+                            }
+                            if (crawlCheckpoint.isPending(domain, page)
+                                    && (isRequested(domain, page) || recrawlTracker.isDue(page))) {
+                                return fetchPage(domain, entry, page);
+                            }
+                            Mono<Void> settle = crawlCheckpoint.settle(page)
+                                    ? persistencePipeline.saveCrawledPage(page)
+                                    : Mono.empty();
+                            return settle.then(enqueueKnownChildren(domain, entry, page))
+                                    .thenMany(Flux.<ProductUrl>empty());
+                        }))
+                .onErrorResume(e -> {
+                    log.debug("Skipping {}: {}", url, e.toString());
+                    return Flux.empty();
+                });
+    }
+    
+    /**
+     * Looks the page up on the calling thread when that is a blocking engine
+     * worker, so that the fetch which follows runs on the worker as well.
+     */
+    private Mono<CrawledPage> lookup(Domain domain, String url, Long parentHash) {
+        long fingerprint = urlNormalizer.fingerprint(url);
+        if (blockingCrawlEngine.isWorkerThread()) {
+            return Mono.fromCallable(() -> recrawlTracker.find(domain, url, fingerprint, parentHash));
+        }
+        return recrawlTracker.lookup(domain, url, fingerprint, parentHash);
+    }
+    
+    private Flux<ProductUrl> fetchPage(Domain domain, FrontierEntry entry, CrawledPage crawledPage) {
+        String url = entry.getUrl();
+        CrawlMetrics.DomainMeters meters = crawlMetrics.domain(domain);
+        Mono<PageFetch> fetch = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.get()
+                .uri(url)
+                .headers(headers -> recrawlTracker.addConditionalHeaders(headers, crawledPage))
+                .exchangeToMono(response -> {
+                    meters.recordStatus(response.statusCode().value());
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return response.releaseBody().thenReturn(PageFetch.NOT_MODIFIED);
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.createError();
+                    }
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    if (!fetchLimits.accepts(headers)) {
+                        return fetchLimits.discard(response).thenReturn(PageFetch.UNSUPPORTED);
+                    }
+                    LinkExtractor.Session session = linkExtractor.open(domain);
+                    return fetchLimits.body(response)
+                            .doOnNext(buffer -> {
+                                meters.recordBytes(buffer.readableByteCount());
+                                try {
+                                    session.feed(buffer);
+                                } finally {
+                                    DataBufferUtils.release(buffer);
+                                }
+                            })
+                            .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                            .then(Mono.fromCallable(() -> {
+                                PageLinks links = session.finish();
+                                meters.recordParse(session.parseNanos(), links.navigationLinks().size(),
+                                        links.productUrls().size());
+                                return new PageFetch(PageFetch.Outcome.FETCHED, links, headers.getETag(),
+                                        headers.getFirst(HttpHeaders.LAST_MODIFIED), session.contentHash());
+                            }));
+                })
+                .doOnError(e -> {
+                    if (!(e instanceof WebClientResponseException)) {
+                        meters.recordError();
+                    }
+                })
+                .doFinally(signal -> meters.recordFetch(System.nanoTime() - start));
+        });
         
-        return links.stream()
-                .map(link -> link.attr("href"))
-                .filter(this::isProductPage)
-                .map(href -> normalizeUrl(domain.getUrl(), href))
-                .filter(href -> href.startsWith(domain.getUrl()))
-                .distinct()
-                .map(href -> {
-                    ProductUrl productUrl = new ProductUrl();
-                    productUrl.setUrl(href);
-                    productUrl.setDomain(domain);
-                    productUrl.setDiscoveredAt(LocalDateTime.now());
-                    return productUrl;
+        boolean blocking = blockingCrawlEngine.isEnabled();
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<PageFetch> fetched = Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return blocking
+                            ? blockingCrawlEngine.fetch(domain, url, crawledPage, meters)
+                            : hostPolitenessScheduler.schedule(url, fetch);
                 })
-                .collect(Collectors.toList());
+                .retryWhen(crawlCheckpoint.retry())
+                .onErrorResume(e -> {
+                    crawlCheckpoint.recordFailure(domain, crawledPage, e, attempts.get());
+                    return persistencePipeline.saveCrawledPage(crawledPage).then(Mono.empty());
+                });
+        // Blocking fetches already complete on an engine thread; reactive ones
+        // leave the event loop before the page is processed.
+        return (blocking ? fetched : fetched.publishOn(Schedulers.boundedElastic()))
+                .flatMapMany(page -> {
+                    crawlCheckpoint.recordSuccess(crawledPage);
+                    if (page.outcome() == PageFetch.Outcome.UNSUPPORTED) {
+                        crawlCheckpoint.recordUnsupported(crawledPage);
+                        return persistencePipeline.saveCrawledPage(crawledPage).thenMany(Flux.<ProductUrl>empty());
+                    }
+                    if (page.outcome() == PageFetch.Outcome.NOT_MODIFIED) {
+                        recrawlTracker.recordNotModified(crawledPage);
+                        return persistencePipeline.saveCrawledPage(crawledPage)
+                                .then(enqueueKnownChildren(domain, entry, crawledPage))
+                                .thenMany(Flux.<ProductUrl>empty());
+                    }
+                    boolean changed = recrawlTracker.recordFetch(crawledPage, page.etag(), page.lastModified(),
+                            page.contentHash());
+                    boolean productPage = isProductPage(url);
+                    Flux<String> navigationLinks = productPage || page.links().productMarkup()
+                            ? Flux.empty()
+                            : Flux.fromIterable(page.links().navigationLinks());
+                    List<String> found = productUrls(domain, url, productPage, page.links());
+                    yieldScorer.record(domain, url, found.size());
+                    List<ProductUrl> productUrls = changed ? toProductUrls(domain, found) : List.of();
+                    return navigationLinks
+                            .concatMap(link -> enqueue(domain, link, entry.getDepth() + 1, crawledPage.getUrlHash(),
+                                    found.size()))
+                            .then(persistencePipeline.saveCrawledPage(crawledPage))
+                            .then(persistencePipeline.submitProductUrls(productUrls))
+                            .thenMany(Flux.fromIterable(productUrls));
+                });
     }
     
-    private List<String> extractLinks(String html, String baseUrl) {
-        Document doc = Jsoup.parse(html);
-        Elements links = doc.select("a[href]");
-        
-        return links.stream()
-                .map(link -> link.attr("href"))
-                .map(href -> normalizeUrl(baseUrl, href))
-                .filter(href -> href.startsWith(baseUrl))
-                .distinct()
-                .collect(Collectors.toList());
+    private Mono<Void> enqueueKnownChildren(Domain domain, FrontierEntry entry, CrawledPage crawledPage) {
+        return recrawlTracker.knownChildren(crawledPage)
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(child -> enqueue(domain, child, entry.getDepth() + 1, crawledPage.getUrlHash(), 0))
+                .then();
     }
     
-    private String normalizeUrl(String baseUrl, String href) {
-        try {
-            if (href.startsWith("http")) {
-                return href;
-            } else if (href.startsWith("/")) {
-                URI baseUri = new URI(baseUrl);
-                return baseUri.getScheme() + "://" + baseUri.getHost() + href;
-            } else {
-                return baseUrl + "/" + href;
-            }
-        } catch (URISyntaxException e) {
-            return href;
+    private Mono<Void> enqueue(Domain domain, String url, int depth, Long parentHash, int parentProducts) {
+        long fingerprint = urlNormalizer.fingerprint(url);
+        if (!crawlFrontier.accepts(depth)) {
+            return Mono.empty();
+        }
+        boolean fresh = urlSeenStore.markSeen(domain, fingerprint);
+        crawlMetrics.domain(domain).recordDedup(fresh);
+        if (!fresh) {
+            return Mono.empty();
         }
+        crawlStats.recordQueued(domain);
+        return persistencePipeline.saveCrawledPage(crawlCheckpoint.queued(domain, url, fingerprint, depth, parentHash))
+                .then(Mono.fromRunnable(() -> crawlFrontier.offer(domain, url, depth, parentHash,
+                        yieldScorer.score(domain, url, depth, parentProducts))));
     }
     
-    private Set<String> parseRobotsTxt(String robotsTxt) {
-        return Arrays.stream(robotsTxt.split("\n"))
-                .filter(line -> line.startsWith("Disallow:"))
-                .map(line -> line.substring("Disallow:".length()).trim())
-                .collect(Collectors.toSet());
+    /**
+     * Queues a URL of the run's options ahead of everything else, even if it
+     * is queued already.
+     */
+    private Mono<Void> enqueueRequested(Domain domain, String url, int depth) {
+        long fingerprint = urlNormalizer.fingerprint(url);
+        if (urlSeenStore.markSeen(domain, fingerprint)) {
+            crawlStats.recordQueued(domain);
+        }
+        return persistencePipeline.saveCrawledPage(crawlCheckpoint.queued(domain, url, fingerprint, depth, null))
+                .then(Mono.fromRunnable(() -> crawlFrontier.offer(domain, url, depth, null, REQUESTED_PRIORITY)));
     }
     
-    private boolean isUrlDisallowed(String url, Set<String> disallowedPaths) {
-        URI uri = URI.create(url);
-        String path = uri.getPath();
-        return disallowedPaths.stream().anyMatch(path::startsWith);
+    private boolean isRequested(Domain domain, CrawledPage page) {
+        Set<Long> requested = refreshes.get(domain.getId());
+        return requested != null && requested.contains(page.getUrlHash());
     }
     
-    @Transactional
-    private void saveProductUrls(List<ProductUrl> productUrls) {
-        List<ProductUrl> newUrls = productUrls.stream()
-                .filter(url -> !productUrlRepository.existsByUrl(url.getUrl()))
-                .collect(Collectors.toList());
-        
-        if (!newUrls.isEmpty()) {
-            productUrlRepository.saveAll(newUrls);
+    private List<String> productUrls(Domain domain, String url, boolean productPage, PageLinks links) {
+        if (productPage || !links.productMarkup()) {
+            return links.productUrls();
         }
+        // The URL patterns missed this one, but the page declares itself a
+        // product. Variant and tracking URLs of it share one canonical, which
+        // is stored instead and need not be fetched again.
+        String productUrl = url;
+        String canonicalUrl = links.canonicalUrl();
+        if (canonicalUrl != null && !canonicalUrl.equals(url)) {
+            productUrl = canonicalUrl;
+            urlSeenStore.markSeen(domain, urlNormalizer.fingerprint(canonicalUrl));
+        }
+        List<String> urls = new ArrayList<>(links.productUrls());
+        urls.remove(productUrl);
+        urls.add(0, productUrl);
+        return urls;
+    }
+    
+    public boolean isProductPage(String url) {
+        return linkExtractor.isProductPage(url);
+    }
+    
+    public List<ProductUrl> extractProductUrls(Domain domain, String html) {
+        return toProductUrls(domain, linkExtractor.extract(domain, html).productUrls());
+    }
+    
+    private List<ProductUrl> toProductUrls(Domain domain, List<String> urls) {
+        LocalDateTime discoveredAt = LocalDateTime.now();
+        return urls.stream()
+                .map(href -> {
+                    ProductUrl productUrl = new ProductUrl();
+                    productUrl.setUrl(href);
+                    productUrl.setUrlHash(urlNormalizer.fingerprint(href));
+                    productUrl.setDomain(domain);
+                    productUrl.setDiscoveredAt(discoveredAt);
+                    return productUrl;
+                })
+                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package com.project.ecommerce_crawler.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Service;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+
+/**
+ * Ranks queued pages by how many product URLs they are expected to yield.
+ * Every fetched page reports its product count under the first one and two
+ * segments of its path ({@code /collections/} and {@code /collections/men/});
+ * a link is scored with the yield of its two-segment prefix, shrunk towards
+ * its one-segment prefix and that towards the domain's average by
+ * {@code crawler.priority.prior-weight} pseudo-pages, so prefixes with few
+ * samples stay close to the average. Pagination links of a page that listed
+ * products are expected to list about as many again. Yields are kept per
+ * domain for the life of the process, so later runs start from what earlier
+ * ones learned.
+ */
+@Service
+public class YieldScorer {
+    private final CrawlerProperties crawlerProperties;
+    private final List<Pattern> paginationPatterns;
+    private final Map<Long, DomainYields> domains = new ConcurrentHashMap<>();
+
+    public YieldScorer(CrawlerProperties crawlerProperties) {
+        this.crawlerProperties = crawlerProperties;
+        this.paginationPatterns = crawlerProperties.getPriority().getPaginationPatterns().stream()
+                .map(Pattern::compile)
+                .toList();
+    }
+
+    public void record(Domain domain, String url, int productUrls) {
+        if (!crawlerProperties.getPriority().isEnabled()) {
+            return;
+        }
+        DomainYields yields = yields(domain);
+        yields.total.add(productUrls);
+        for (String prefix : prefixes(url)) {
+            Stats stats = prefix == null
+                    ? null
+                    : yields.stats(prefix, crawlerProperties.getPriority().getMaxPrefixesPerDomain());
+            if (stats != null) {
+                stats.add(productUrls);
+            }
+        }
+    }
+
+    /**
+     * @param parentProducts product URLs found on the page that linked here, or 0 when unknown
+     */
+    public double score(Domain domain, String url, int depth, int parentProducts) {
+        CrawlerProperties.Priority config = crawlerProperties.getPriority();
+        if (!config.isEnabled()) {
+            return -depth;
+        }
+        DomainYields yields = yields(domain);
+        double weight = config.getPriorWeight();
+        double expected = yields.total.mean(1.0);
+        for (String prefix : prefixes(url)) {
+            Stats stats = prefix == null ? null : yields.prefixes.get(prefix);
+            if (stats != null) {
+                expected = (stats.products.sum() + weight * expected) / (stats.pages.sum() + weight);
+            }
+        }
+        if (parentProducts > 0 && isPagination(url)) {
+            expected = Math.max(expected, parentProducts);
+        }
+        return expected - config.getDepthPenalty() * depth;
+    }
+
+    public boolean isPagination(String url) {
+        for (Pattern pattern : paginationPatterns) {
+            if (pattern.matcher(url).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private DomainYields yields(Domain domain) {
+        return domains.computeIfAbsent(domain.getId(), id -> new DomainYields());
+    }
+
+    /**
+     * The one- and two-segment path prefixes of a URL; the second is null
+     * when the path has a single segment.
+     */
+    private static String[] prefixes(String url) {
+        String[] prefixes = { "/", null };
+        int authority = url.indexOf("://");
+        int start = url.indexOf('/', authority < 0 ? 0 : authority + 3);
+        if (start < 0) {
+            return prefixes;
+        }
+        int end = start;
+        while (end < url.length() && url.charAt(end) != '?' && url.charAt(end) != '#') {
+            end++;
+        }
+        String path = url.substring(start, end);
+        if (path.length() <= 1) {
+            return prefixes;
+        }
+        int first = path.indexOf('/', 1);
+        if (first < 0) {
+            prefixes[0] = path + "/";
+            return prefixes;
+        }
+        prefixes[0] = path.substring(0, first + 1);
+        int second = path.indexOf('/', first + 1);
+        String two = second < 0 ? path : path.substring(0, second);
+        if (two.length() > first + 1) {
+            prefixes[1] = two + "/";
+        }
+        return prefixes;
+    }
+
+    private static final class DomainYields {
+        private final Stats total = new Stats();
+        private final Map<String, Stats> prefixes = new ConcurrentHashMap<>();
+
+        private Stats stats(String prefix, int maxPrefixes) {
+            Stats stats = prefixes.get(prefix);
+            if (stats == null && prefixes.size() < maxPrefixes) {
+                stats = prefixes.computeIfAbsent(prefix, key -> new Stats());
+            }
+            return stats;
+        }
+    }
+
+    private static final class Stats {
+        private final LongAdder pages = new LongAdder();
+        private final LongAdder products = new LongAdder();
+
+        private void add(int productUrls) {
+            pages.increment();
+            products.add(productUrls);
+        }
+
+        private double mean(double fallback) {
+            long count = pages.sum();
+            return count == 0 ? fallback : (double) products.sum() / count;
+        }
+    }
+}
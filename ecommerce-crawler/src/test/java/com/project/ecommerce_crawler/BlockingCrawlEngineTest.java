@@ -0,0 +1,216 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawledPage;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.FrontierEntry;
+import com.project.ecommerce_crawler.model.ProductUrl;
+import com.project.ecommerce_crawler.service.BlockingCrawlEngine;
+import com.project.ecommerce_crawler.service.CrawlFrontier;
+import com.project.ecommerce_crawler.service.CrawlMetrics;
+import com.project.ecommerce_crawler.service.FetchLimits;
+import com.project.ecommerce_crawler.service.HostPolitenessScheduler;
+import com.project.ecommerce_crawler.service.LinkExtractor;
+import com.project.ecommerce_crawler.service.PageFetch;
+import com.project.ecommerce_crawler.service.ProductClassifier;
+import com.project.ecommerce_crawler.service.RecrawlTracker;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+public class BlockingCrawlEngineTest {
+    private static final String PAGE = "<html><body><a href=\"/product/1\">Shirt</a>"
+            + "<a href=\"/category/shirts\">Shirts</a></body></html>";
+
+    private HttpServer server;
+    private CrawlFrontier crawlFrontier;
+    private HostPolitenessScheduler hostPolitenessScheduler;
+    private BlockingCrawlEngine engine;
+    private CrawlMetrics.DomainMeters meters;
+    private Domain domain;
+    private String baseUrl;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/page", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            respond(exchange, 200, gzip(PAGE));
+        });
+        server.createContext("/not-modified", exchange -> respond(exchange, 304, null));
+        server.createContext("/missing", exchange -> respond(exchange, 404, new byte[0]));
+        server.createContext("/file", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/pdf");
+            respond(exchange, 200, PAGE.getBytes(StandardCharsets.UTF_8));
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getEngine().setMode(CrawlerProperties.Engine.Mode.BLOCKING);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UrlNormalizer urlNormalizer = new UrlNormalizer(properties);
+        crawlFrontier = mock(CrawlFrontier.class);
+        hostPolitenessScheduler = spy(new HostPolitenessScheduler(properties, meterRegistry));
+        engine = new BlockingCrawlEngine(crawlFrontier, hostPolitenessScheduler,
+                new LinkExtractor(properties, urlNormalizer, new ProductClassifier(properties, urlNormalizer)),
+                mock(RecrawlTracker.class), new FetchLimits(properties, meterRegistry), properties);
+
+        domain = new Domain();
+        domain.setId(1L);
+        domain.setUrl(baseUrl);
+        meters = new CrawlMetrics(meterRegistry, crawlFrontier, urlNormalizer, properties).domain(domain);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        engine.stop();
+        server.stop(0);
+    }
+
+    @Test
+    public void testDrainCompletesOnceTheFrontierIsExhausted() {
+        Queue<FrontierEntry> entries = new ArrayDeque<>();
+        for (int i = 0; i < 10; i++) {
+            entries.add(entry(baseUrl + "/category/" + i));
+        }
+        when(crawlFrontier.poll(domain)).thenAnswer(invocation -> {
+            synchronized (entries) {
+                return entries.poll();
+            }
+        });
+        when(crawlFrontier.isExhausted(domain)).thenAnswer(invocation -> {
+            synchronized (entries) {
+                return entries.isEmpty();
+            }
+        });
+
+        List<ProductUrl> found = engine.drain(domain, 4, entry -> Flux.just(productUrl(entry.getUrl())))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(10, found.size());
+    }
+
+    @Test
+    public void testFailingWorkerCancelsTheOthers() {
+        when(crawlFrontier.poll(domain)).thenAnswer(invocation -> entry(baseUrl + "/category/shirts"));
+        AtomicInteger pages = new AtomicInteger();
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> engine.drain(domain, 3, entry -> pages.incrementAndGet() == 1
+                                ? Flux.error(new IllegalStateException("parser crashed"))
+                                : Flux.never())
+                        .blockLast(Duration.ofSeconds(10)));
+
+        assertEquals("parser crashed", failure.getMessage());
+    }
+
+    @Test
+    public void testFetchesOnTheWorkerThread() throws Exception {
+        Queue<FrontierEntry> entries = new ArrayDeque<>(List.of(entry(baseUrl + "/page")));
+        when(crawlFrontier.poll(domain)).thenAnswer(invocation -> entries.poll());
+        when(crawlFrontier.isExhausted(domain)).thenAnswer(invocation -> entries.isEmpty());
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        List<Thread> fetchThreads = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            fetchThreads.add(Thread.currentThread());
+            return invocation.callRealMethod();
+        }).when(hostPolitenessScheduler).execute(anyString(), any());
+
+        engine.drain(domain, 1, entry -> Flux.defer(() -> {
+                    worker.set(Thread.currentThread());
+                    return engine.fetch(domain, entry.getUrl(), new CrawledPage(), meters);
+                }).thenMany(Flux.<ProductUrl>empty()))
+                .blockLast(Duration.ofSeconds(10));
+
+        assertEquals(1, fetchThreads.size());
+        assertSame(worker.get(), fetchThreads.get(0));
+    }
+
+    @Test
+    public void testReadsGzipPageAndItsLinks() {
+        PageFetch page = fetch("/page");
+
+        assertEquals(PageFetch.Outcome.FETCHED, page.outcome());
+        assertEquals(List.of(baseUrl + "/product/1"), page.links().productUrls());
+        assertTrue(page.links().navigationLinks().contains(baseUrl + "/category/shirts"));
+        assertEquals("\"v1\"", page.etag());
+    }
+
+    @Test
+    public void testMapsNotModifiedUnsupportedAndErrorResponses() {
+        assertSame(PageFetch.NOT_MODIFIED, fetch("/not-modified"));
+        assertSame(PageFetch.UNSUPPORTED, fetch("/file"));
+        WebClientResponseException error = assertThrows(WebClientResponseException.class, () -> fetch("/missing"));
+        assertEquals(404, error.getStatusCode().value());
+    }
+
+    private PageFetch fetch(String path) {
+        return engine.fetch(domain, baseUrl + path, new CrawledPage(), meters).block(Duration.ofSeconds(10));
+    }
+
+    private static FrontierEntry entry(String url) {
+        FrontierEntry entry = new FrontierEntry();
+        entry.setUrl(url);
+        return entry;
+    }
+
+    private static ProductUrl productUrl(String url) {
+        ProductUrl productUrl = new ProductUrl();
+        productUrl.setUrl(url);
+        return productUrl;
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body == null || body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (body != null) {
+                out.write(body);
+            }
+        }
+    }
+}
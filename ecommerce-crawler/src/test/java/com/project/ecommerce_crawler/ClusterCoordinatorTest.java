@@ -0,0 +1,128 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.service.ClusterCoordinator;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ClusterCoordinatorTest {
+    private static final Duration LEASE = Duration.ofMillis(800);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Domain> domains;
+
+    @BeforeEach
+    public void setUp() {
+        domains = LongStream.rangeClosed(1, 24)
+                .mapToObj(id -> {
+                    Domain domain = new Domain();
+                    domain.setId(id);
+                    domain.setUrl("https://shop-" + id + ".example.com");
+                    return domain;
+                })
+                .toList();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM domain_lease");
+        jdbcTemplate.update("DELETE FROM crawler_node");
+    }
+
+    @Test
+    public void testNodesShareDomainsAndRebalance() throws InterruptedException {
+        ClusterCoordinator a = node("a");
+        ClusterCoordinator b = node("b");
+        ClusterCoordinator c = node("c");
+        heartbeat(a, b, c);
+
+        Map<Long, ClusterCoordinator> owners = acquireAll(List.of(a, b, c));
+        assertEquals(domains.size(), owners.size());
+        assertTrue(owners.values().containsAll(List.of(a, b, c)));
+
+        ClusterCoordinator d = node("d");
+        heartbeat(d, a, b, c);
+        Set<Long> handedOff = new HashSet<>();
+        for (Domain domain : domains) {
+            ClusterCoordinator owner = owners.get(domain.getId());
+            owner.revoked(domain).subscribe(null, null, () -> {
+                handedOff.add(domain.getId());
+                owner.release(domain);
+            });
+        }
+        assertFalse(handedOff.isEmpty());
+        assertEquals(handedOff, acquireAll(List.of(d, a, b, c)).keySet());
+
+        Thread.sleep(LEASE.toMillis() + 200);
+        heartbeat(a, b, d);
+        Map<Long, ClusterCoordinator> reassigned = acquireAll(List.of(a, b, d));
+        Set<Long> ownedByC = new HashSet<>();
+        domains.stream().filter(c::holds).forEach(domain -> ownedByC.add(domain.getId()));
+        assertEquals(ownedByC, reassigned.keySet());
+        assertEquals(3, a.liveNodes().size());
+
+        Set<Long> lost = new HashSet<>();
+        domains.stream().filter(c::holds)
+                .forEach(domain -> c.revoked(domain).subscribe(null, null, () -> lost.add(domain.getId())));
+        c.heartbeat();
+        assertEquals(ownedByC, lost);
+        assertEquals(domains.size(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT domain_id) FROM domain_lease WHERE owner <> 'c'", Integer.class));
+    }
+
+    private ClusterCoordinator node(String nodeId) {
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getCluster().setEnabled(true);
+        properties.getCluster().setNodeId(nodeId);
+        properties.getCluster().setLeaseDuration(LEASE);
+        return new ClusterCoordinator(jdbcTemplate, properties);
+    }
+
+    private static void heartbeat(ClusterCoordinator... nodes) {
+        for (int round = 0; round < 2; round++) {
+            for (ClusterCoordinator node : nodes) {
+                node.heartbeat();
+            }
+        }
+    }
+
+    private Map<Long, ClusterCoordinator> acquireAll(List<ClusterCoordinator> nodes) {
+        Map<Long, ClusterCoordinator> acquired = new HashMap<>();
+        for (Domain domain : domains) {
+            for (ClusterCoordinator node : nodes) {
+                if (node.tryAcquire(domain)) {
+                    assertEquals(null, acquired.put(domain.getId(), node));
+                }
+            }
+        }
+        return acquired;
+    }
+}
@@ -0,0 +1,165 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawledPage;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.PageStatus;
+import com.project.ecommerce_crawler.repository.CrawledPageRepository;
+import com.project.ecommerce_crawler.repository.DomainRepository;
+import com.project.ecommerce_crawler.service.CrawlCheckpoint;
+import com.project.ecommerce_crawler.service.CrawledPageWriter;
+import com.project.ecommerce_crawler.service.RecrawlTracker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = "crawler.persistence.batch-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(CrawlCheckpointTest.CheckpointConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CrawlCheckpointTest {
+    private static final String URL = "https://www.example.com/category/shirts?page=";
+
+    @Autowired
+    private CrawlCheckpoint crawlCheckpoint;
+
+    @Autowired
+    private RecrawlTracker recrawlTracker;
+
+    @Autowired
+    private CrawledPageWriter crawledPageWriter;
+
+    @Autowired
+    private CrawledPageRepository crawledPageRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        domain = new Domain();
+        domain.setUrl("https://www.example.com");
+        domain.setCrawlStartedAt(LocalDateTime.now().minusMinutes(1));
+        domain = domainRepository.save(domain);
+        crawlCheckpoint.open(domain);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        crawlCheckpoint.close(domain);
+        crawledPageRepository.deleteAll();
+        domainRepository.delete(domain);
+    }
+
+    @Test
+    public void testResumesQueuedAndRetryableFailedPages() {
+        for (long hash = 1; hash <= 5; hash++) {
+            crawledPageWriter.submit(crawlCheckpoint.queued(domain, URL + hash, hash, 1, null));
+        }
+        crawledPageWriter.flush();
+
+        CrawledPage fetched = lookup(2L);
+        recrawlTracker.recordFetch(fetched, null, null, 7L);
+        crawlCheckpoint.recordSuccess(fetched);
+        crawledPageWriter.submit(fetched);
+
+        CrawledPage unavailable = lookup(3L);
+        crawlCheckpoint.recordFailure(domain, unavailable, serverError(503), 3);
+        crawledPageWriter.submit(unavailable);
+
+        CrawledPage missing = lookup(4L);
+        crawlCheckpoint.recordFailure(domain, missing, serverError(404), 1);
+        crawledPageWriter.submit(missing);
+
+        CrawledPage retryDue = lookup(5L);
+        crawlCheckpoint.recordFailure(domain, retryDue, serverError(502), 3);
+        retryDue.setNextFetchAt(LocalDateTime.now().minusSeconds(1));
+        crawledPageWriter.submit(retryDue);
+        crawledPageWriter.flush();
+
+        assertEquals(List.of(URL + 1, URL + 5), crawlCheckpoint.pending(domain)
+                .map(CrawlCheckpoint.PendingUrl::url)
+                .collectList()
+                .block());
+        assertEquals(2, crawlCheckpoint.failures(domain));
+
+        CrawledPage stored = lookup(3L);
+        assertEquals(PageStatus.FAILED, stored.getStatus());
+        assertEquals("HTTP_503", stored.getErrorClass());
+        assertEquals(3, stored.getAttempts());
+        assertFalse(crawlCheckpoint.isPending(domain, stored));
+        assertTrue(lookup(4L).getNextFetchAt().isAfter(LocalDateTime.now().plusDays(29)));
+        assertFalse(crawlCheckpoint.isPending(domain, lookup(2L)));
+        assertTrue(crawlCheckpoint.isPending(domain, lookup(1L)));
+    }
+
+    @Test
+    public void testFetchRecordedBeforeQueuedRowIsFlushed() {
+        CrawledPage page = lookup(9L);
+        crawledPageWriter.submit(crawlCheckpoint.queued(domain, URL + 9, 9L, 0, null));
+        crawledPageWriter.flush();
+
+        recrawlTracker.recordFetch(page, "\"v1\"", null, 7L);
+        crawlCheckpoint.recordSuccess(page);
+        crawledPageWriter.submit(page);
+        crawledPageWriter.flush();
+
+        assertEquals(1, crawledPageRepository.count());
+        CrawledPage stored = lookup(9L);
+        assertEquals(PageStatus.FETCHED, stored.getStatus());
+        assertEquals("\"v1\"", stored.getEtag());
+        assertEquals(0, crawlCheckpoint.pending(domain).count().block());
+    }
+
+    @Test
+    public void testBackoffIsBounded() {
+        assertEquals(Duration.ofSeconds(1), crawlCheckpoint.backoff(1));
+        assertEquals(Duration.ofSeconds(4), crawlCheckpoint.backoff(3));
+        assertEquals(Duration.ofHours(6), crawlCheckpoint.backoff(200));
+    }
+
+    private CrawledPage lookup(long hash) {
+        return recrawlTracker.lookup(domain, URL + hash, hash, null).block();
+    }
+
+    private static WebClientResponseException serverError(int status) {
+        return WebClientResponseException.create(status, "error", null, null, null);
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties(CrawlerProperties.class)
+    @Import({ CrawlCheckpoint.class, RecrawlTracker.class, CrawledPageWriter.class })
+    static class CheckpointConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.FrontierEntry;
+import com.project.ecommerce_crawler.repository.FrontierEntryRepository;
+import com.project.ecommerce_crawler.service.CrawlFrontier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CrawlFrontierTest {
+
+    private FrontierEntryRepository repository;
+    private CrawlFrontier frontier;
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(FrontierEntryRepository.class);
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getFrontier().setMemoryCapacity(2);
+        properties.getFrontier().setSpillBatchSize(2);
+        properties.getFrontier().setMaxDepth(3);
+        frontier = new CrawlFrontier(repository, properties, new SimpleMeterRegistry());
+
+        domain = new Domain();
+        domain.setId(1L);
+        domain.setUrl("https://www.example.com");
+        frontier.open(domain);
+    }
+
+    @Test
+    public void testPollsShallowestEntryFirst() {
+        frontier.offer(domain, "https://www.example.com/a/b", 2);
+        frontier.offer(domain, "https://www.example.com/a", 1);
+
+        assertEquals("https://www.example.com/a", frontier.poll(domain).getUrl());
+        assertEquals("https://www.example.com/a/b", frontier.poll(domain).getUrl());
+        assertFalse(frontier.isExhausted(domain));
+
+        frontier.complete(domain);
+        frontier.complete(domain);
+        assertTrue(frontier.isExhausted(domain));
+    }
+
+    @Test
+    public void testPollsHighestPriorityFirst() {
+        frontier.offer(domain, "https://www.example.com/help", 1, null, 0.2);
+        frontier.offer(domain, "https://www.example.com/collections/men", 2, null, 14.5);
+
+        assertEquals("https://www.example.com/collections/men", frontier.poll(domain).getUrl());
+        assertEquals("https://www.example.com/help", frontier.poll(domain).getUrl());
+    }
+
+    @Test
+    public void testStopsPollingOncePageBudgetIsSpent() {
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getFrontier().setPageBudget(1);
+        CrawlFrontier budgeted = new CrawlFrontier(repository, properties, new SimpleMeterRegistry());
+        budgeted.open(domain);
+        budgeted.offer(domain, "https://www.example.com/a", 1);
+        budgeted.offer(domain, "https://www.example.com/b", 1);
+
+        assertEquals("https://www.example.com/a", budgeted.poll(domain).getUrl());
+        assertNull(budgeted.poll(domain));
+        assertTrue(budgeted.isOverBudget(domain));
+        assertFalse(budgeted.isExhausted(domain));
+
+        budgeted.complete(domain);
+        assertTrue(budgeted.isExhausted(domain));
+        assertEquals(1, budgeted.size(domain));
+    }
+
+    @Test
+    public void testOnlyOneClaimOfADomainSucceedsAndStopEndsTheRun() {
+        Domain other = new Domain();
+        other.setId(2L);
+        other.setUrl("https://www.example.org");
+
+        assertTrue(frontier.claim(other));
+        assertFalse(frontier.claim(other));
+        assertFalse(frontier.claim(domain));
+
+        frontier.offer(other, "https://www.example.org/a", 1);
+        assertTrue(frontier.stop(2L));
+        assertNull(frontier.poll(other));
+        assertTrue(frontier.isExhausted(other));
+        assertEquals(1, frontier.size(other));
+    }
+
+    @Test
+    public void testRejectsEntriesBeyondMaxDepth() {
+        assertFalse(frontier.offer(domain, "https://www.example.com/deep", 4));
+        assertNull(frontier.poll(domain));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSpillsOverflowAndReadsItBack() {
+        for (int i = 0; i < 4; i++) {
+            frontier.offer(domain, "https://www.example.com/" + i, 1);
+        }
+
+        ArgumentCaptor<List<FrontierEntry>> spilled = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(spilled.capture());
+        assertEquals(2, spilled.getValue().size());
+        assertEquals(2, frontier.size(domain));
+
+        when(repository.findByDomainIdOrderByPriorityDescIdAsc(eq(1L), any()))
+                .thenReturn(new ArrayList<>(spilled.getValue()))
+                .thenReturn(List.of());
+
+        List<String> polled = new ArrayList<>();
+        FrontierEntry entry;
+        while ((entry = frontier.poll(domain)) != null) {
+            polled.add(entry.getUrl());
+            frontier.complete(domain);
+        }
+
+        assertEquals(4, polled.size());
+        verify(repository).deleteAllInBatch(anyList());
+        assertTrue(frontier.isExhausted(domain));
+    }
+
+    @Test
+    public void testKeepsPriorityOrderWhenEntriesOutgrowMemory() {
+        List<FrontierEntry> table = new ArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            table.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(repository.findByDomainIdOrderByPriorityDescIdAsc(eq(1L), any())).thenAnswer(invocation -> {
+            Pageable page = invocation.getArgument(1);
+            return table.stream()
+                    .sorted(Comparator.comparingDouble(FrontierEntry::getPriority).reversed())
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        doAnswer(invocation -> table.removeAll(invocation.getArgument(0)))
+                .when(repository).deleteAllInBatch(anyList());
+
+        double[] priorities = { 1, 2, 5, 0.5, 4, 3, 0.1, 6, 2.5 };
+        for (double priority : priorities) {
+            frontier.offer(domain, "https://www.example.com/" + priority, 1, null, priority);
+        }
+
+        List<Double> polled = new ArrayList<>();
+        FrontierEntry entry;
+        while ((entry = frontier.poll(domain)) != null) {
+            polled.add(entry.getPriority());
+            frontier.complete(domain);
+        }
+
+        assertEquals(List.of(6.0, 5.0, 4.0, 3.0, 2.5, 2.0, 1.0, 0.5, 0.1), polled);
+        assertTrue(table.isEmpty());
+        assertTrue(frontier.isExhausted(domain));
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.ecommerce_crawler;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.project.ecommerce_crawler.controller.CrawlJobController;
+import com.project.ecommerce_crawler.service.CrawlJobService;
+
+import reactor.core.publisher.Flux;
+
+@WebFluxTest(controllers = CrawlJobController.class)
+public class CrawlJobControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @SuppressWarnings("removal")
+    @MockBean
+    private CrawlJobService crawlJobService;
+
+    @Test
+    public void testSubmitsAJob() {
+        when(crawlJobService.submit(any())).thenReturn(new CrawlJobService.Submitted(
+                job(7, CrawlJobService.State.QUEUED, 0), true));
+
+        webTestClient.post()
+                .uri("/api/crawler/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("domain", "https://www.westside.com/", "pageBudget", 500))
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().location("/api/crawler/jobs/7")
+                .expectBody().jsonPath("$.state").isEqualTo("QUEUED");
+    }
+
+    @Test
+    public void testStreamsProgressAsNdjson() {
+        when(crawlJobService.progress(7)).thenReturn(Flux.just(
+                job(7, CrawlJobService.State.RUNNING, 40), job(7, CrawlJobService.State.COMPLETED, 90)));
+
+        webTestClient.get()
+                .uri("/api/crawler/jobs/7/progress")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CrawlJobService.JobSnapshot.class)
+                .hasSize(2);
+    }
+
+    @Test
+    public void testUnknownJobIsNotFound() {
+        webTestClient.get()
+                .uri("/api/crawler/jobs/8/progress")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private static CrawlJobService.JobSnapshot job(long id, CrawlJobService.State state, long pages) {
+        return new CrawlJobService.JobSnapshot(id, 1, "https://www.westside.com/", state, 0, List.of(), 500L, null,
+                LocalDateTime.now(), null, null, pages, 0, pages * 10, null, null);
+    }
+}
@@ -0,0 +1,136 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawlStatus;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.repository.DomainRepository;
+import com.project.ecommerce_crawler.service.CrawlFrontier;
+import com.project.ecommerce_crawler.service.CrawlJobService;
+import com.project.ecommerce_crawler.service.CrawlStats;
+import com.project.ecommerce_crawler.service.CrawlerScheduler;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+import com.project.ecommerce_crawler.service.WebCrawlerService;
+
+import reactor.core.publisher.Flux;
+
+public class CrawlJobServiceTest {
+
+    private CrawlerScheduler crawlerScheduler;
+    private DomainRepository domainRepository;
+    private CrawlFrontier crawlFrontier;
+    private CrawlJobService crawlJobService;
+    private Domain westside;
+    private Domain virgio;
+
+    @BeforeEach
+    public void setUp() {
+        crawlerScheduler = mock(CrawlerScheduler.class);
+        domainRepository = mock(DomainRepository.class);
+        crawlFrontier = mock(CrawlFrontier.class);
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getJobs().setMaxConcurrent(1);
+        crawlJobService = new CrawlJobService(crawlerScheduler, domainRepository, crawlFrontier,
+                mock(CrawlStats.class), new UrlNormalizer(properties), properties);
+
+        westside = domain(1L, "https://www.westside.com/");
+        virgio = domain(2L, "https://www.virgio.com/");
+        when(domainRepository.findAll()).thenReturn(List.of(westside, virgio));
+        when(crawlerScheduler.claim(any())).thenReturn(true);
+        when(crawlerScheduler.crawlClaimed(any(), any())).thenReturn(Flux.never());
+    }
+
+    @Test
+    public void testAnswersADuplicateSubmissionWithTheRunningJob() {
+        CrawlJobService.Submitted first = crawlJobService.submit(submission("https://www.westside.com", 0));
+        CrawlJobService.Submitted second = crawlJobService.submit(submission("https://WWW.westside.com/", 5));
+
+        assertTrue(first.created());
+        assertFalse(second.created());
+        assertEquals(first.job().id(), second.job().id());
+        assertEquals(CrawlJobService.State.RUNNING, second.job().state());
+    }
+
+    @Test
+    public void testRefreshesRequestedUrlsOfTheDomain() {
+        crawlJobService.submit(new CrawlJobService.Submission(null, null,
+                List.of("https://www.westside.com/collections/new-in?utm_source=mail"), null, 200L, null));
+
+        ArgumentCaptor<WebCrawlerService.CrawlOptions> options =
+                ArgumentCaptor.forClass(WebCrawlerService.CrawlOptions.class);
+        verify(crawlerScheduler).crawlClaimed(eq(westside), options.capture());
+        assertEquals(List.of("https://www.westside.com/collections/new-in"), options.getValue().urls());
+        assertEquals(200L, options.getValue().pageBudget());
+    }
+
+    @Test
+    public void testRejectsUrlsOfAnotherDomainAndDomainsBeingCrawled() {
+        assertThrows(IllegalArgumentException.class, () -> crawlJobService.submit(new CrawlJobService.Submission(
+                1L, null, List.of("https://www.virgio.com/collections/dresses"), null, null, null)));
+
+        when(crawlFrontier.isActive(2L)).thenReturn(true);
+        assertThrows(IllegalStateException.class,
+                () -> crawlJobService.submit(submission("https://www.virgio.com/", 0)));
+    }
+
+    @Test
+    public void testCancelsAWaitingJob() {
+        crawlJobService.submit(submission("https://www.westside.com/", 0));
+        CrawlJobService.Submitted waiting = crawlJobService.submit(submission("https://www.virgio.com/", 0));
+        assertEquals(CrawlJobService.State.QUEUED, waiting.job().state());
+
+        CrawlJobService.JobSnapshot cancelled = crawlJobService.cancel(waiting.job().id());
+
+        assertEquals(CrawlJobService.State.CANCELLED, cancelled.state());
+        verify(crawlerScheduler).claim(westside);
+        verify(crawlFrontier, never()).stop(2L);
+    }
+
+    @Test
+    public void testFailsTheJobWhenTheCrawlDoesNotCompleteTheDomain() {
+        when(crawlerScheduler.crawlClaimed(eq(westside), any())).thenReturn(Flux.defer(() -> {
+            westside.setStatus(CrawlStatus.FAILED);
+            return Flux.empty();
+        }));
+        when(crawlerScheduler.crawlClaimed(eq(virgio), any())).thenReturn(Flux.defer(() -> {
+            virgio.setStatus(CrawlStatus.COMPLETED);
+            return Flux.empty();
+        }));
+
+        CrawlJobService.JobSnapshot failed = crawlJobService.submit(submission("https://www.westside.com/", 0)).job();
+        CrawlJobService.JobSnapshot completed = crawlJobService.submit(submission("https://www.virgio.com/", 0)).job();
+
+        assertEquals(CrawlJobService.State.FAILED, failed.state());
+        assertTrue(failed.error().contains("interrupted"));
+        assertEquals(CrawlJobService.State.COMPLETED, completed.state());
+    }
+
+    private static CrawlJobService.Submission submission(String domain, int priority) {
+        return new CrawlJobService.Submission(null, domain, null, priority, null, null);
+    }
+
+    private Domain domain(long id, String url) {
+        Domain domain = new Domain();
+        domain.setId(id);
+        domain.setUrl(url);
+        when(domainRepository.findById(id)).thenReturn(Optional.of(domain));
+        return domain;
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.repository.FrontierEntryRepository;
+import com.project.ecommerce_crawler.service.CrawlFrontier;
+import com.project.ecommerce_crawler.service.CrawlMetrics;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CrawlMetricsTest {
+
+    private CrawlerProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private CrawlFrontier frontier;
+    private CrawlMetrics crawlMetrics;
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new CrawlerProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        frontier = new CrawlFrontier(mock(FrontierEntryRepository.class), properties, meterRegistry);
+        crawlMetrics = new CrawlMetrics(meterRegistry, frontier, new UrlNormalizer(properties), properties);
+
+        domain = new Domain();
+        domain.setId(1L);
+        domain.setUrl("https://www.Example.com/");
+        frontier.open(domain);
+    }
+
+    @Test
+    public void testRecordsPerDomainMeters() {
+        CrawlMetrics.DomainMeters meters = crawlMetrics.domain(domain);
+        assertSame(meters, crawlMetrics.domain(domain));
+
+        meters.recordFetch(TimeUnit.MILLISECONDS.toNanos(120));
+        meters.recordStatus(200);
+        meters.recordStatus(503);
+        meters.recordError();
+        meters.recordBytes(4096);
+        meters.recordParse(TimeUnit.MILLISECONDS.toNanos(3), 12, 5);
+        meters.recordDedup(true);
+        meters.recordDedup(false);
+        meters.recordDedup(false);
+        frontier.offer(domain, "https://www.example.com/category/shirts", 1);
+
+        assertEquals(1, meterRegistry.get("crawler.fetch.latency").tag("domain", "www.example.com").timer().count());
+        assertEquals(4096, meterRegistry.get("crawler.fetch.bytes").tag("domain", "www.example.com").counter().count());
+        assertEquals(1, responses("2xx"));
+        assertEquals(1, responses("5xx"));
+        assertEquals(1, responses("error"));
+        assertEquals(12, meterRegistry.get("crawler.page.links").summary().totalAmount());
+        assertEquals(5, meterRegistry.get("crawler.page.products").summary().totalAmount());
+        assertEquals(2, meterRegistry.get("crawler.dedup.urls").tag("result", "seen").counter().count());
+        assertEquals(1, meterRegistry.get("crawler.frontier.size").tag("domain", "www.example.com").gauge().value());
+    }
+
+    @Test
+    public void testSharesMetersWithoutDomainTags() {
+        properties.getMetrics().setDomainTags(false);
+        Domain other = new Domain();
+        other.setId(2L);
+        other.setUrl("https://shop.example.org");
+
+        assertSame(crawlMetrics.domain(domain), crawlMetrics.domain(other));
+        crawlMetrics.domain(other).recordStatus(404);
+        assertEquals(1, meterRegistry.get("crawler.fetch.responses").tags("domain", "all", "status", "4xx")
+                .counter().count());
+    }
+
+    private double responses(String status) {
+        return meterRegistry.get("crawler.fetch.responses").tags("domain", "www.example.com", "status", status)
+                .counter().count();
+    }
+}
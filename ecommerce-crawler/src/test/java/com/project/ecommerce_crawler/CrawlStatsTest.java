@@ -0,0 +1,141 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawlStatus;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.ProductUrl;
+import com.project.ecommerce_crawler.repository.DomainRepository;
+import com.project.ecommerce_crawler.repository.ProductUrlRepository;
+import com.project.ecommerce_crawler.service.CrawlStats;
+import com.project.ecommerce_crawler.service.ProductUrlWriter;
+import com.project.ecommerce_crawler.service.UrlFingerprints;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = { "crawler.stats.reconcile-interval=0s", "crawler.persistence.flush-interval=1h" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(CrawlStatsTest.StatsConfig.class)
+public class CrawlStatsTest {
+
+    @Autowired
+    private CrawlStats crawlStats;
+
+    @Autowired
+    private ProductUrlWriter productUrlWriter;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private ProductUrlRepository productUrlRepository;
+
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        domain = domainRepository.save(domain("https://www.example.com", CrawlStatus.COMPLETED));
+        domainRepository.save(domain("https://shop.example.org", CrawlStatus.PENDING));
+        productUrlRepository.saveAndFlush(productUrl("/product/0"));
+        crawlStats.reconcile();
+    }
+
+    @Test
+    public void testReconcilesFromDatabase() {
+        CrawlStats.Snapshot snapshot = crawlStats.snapshot();
+
+        assertEquals(2, snapshot.totalDomains());
+        assertEquals(1, snapshot.domainsByStatus().get(CrawlStatus.COMPLETED));
+        assertEquals(1, snapshot.domainsByStatus().get(CrawlStatus.PENDING));
+        assertEquals(0, snapshot.domainsByStatus().get(CrawlStatus.FAILED));
+        assertEquals(1, snapshot.totalProductUrls());
+        assertNotNull(snapshot.reconciledAt());
+    }
+
+    @Test
+    public void testTracksCrawlWithoutQueries() {
+        domain.setStatus(CrawlStatus.IN_PROGRESS);
+        crawlStats.recordDomain(domain);
+        crawlStats.startRun(domain);
+        for (int i = 0; i < 3; i++) {
+            crawlStats.recordQueued(domain);
+        }
+        crawlStats.recordProcessed(domain);
+        productUrlWriter.submit(List.of(productUrl("/product/0"), productUrl("/product/1"), productUrl("/product/2")));
+        productUrlWriter.flush();
+
+        CrawlStats.Snapshot snapshot = crawlStats.snapshot();
+        CrawlStats.DomainSnapshot stats = snapshot.domains().get(0);
+        assertEquals(1, snapshot.domainsByStatus().get(CrawlStatus.IN_PROGRESS));
+        assertEquals(3, snapshot.totalProductUrls());
+        assertEquals(3, stats.productUrls());
+        assertEquals(1, stats.pagesProcessed());
+        assertEquals(2, stats.pagesRemaining());
+        assertNotNull(stats.pagesPerSecond());
+        assertNotNull(stats.etaSeconds());
+        assertNull(snapshot.domains().get(1).etaSeconds());
+
+        crawlStats.reconcile();
+        assertEquals(1, crawlStats.snapshot().domainsByStatus().get(CrawlStatus.COMPLETED));
+        assertEquals(3, crawlStats.snapshot().totalProductUrls());
+    }
+
+    @Test
+    public void testRecountsOnlyDomainsThatMayHaveGainedUrls() {
+        productUrlRepository.saveAndFlush(productUrl("/product/1"));
+
+        crawlStats.reconcile();
+        assertEquals(1, crawlStats.domain(domain.getId()).productUrls());
+
+        domain.setStatus(CrawlStatus.IN_PROGRESS);
+        domainRepository.saveAndFlush(domain);
+        crawlStats.reconcile();
+        assertEquals(2, crawlStats.domain(domain.getId()).productUrls());
+    }
+
+    private static Domain domain(String url, CrawlStatus status) {
+        Domain domain = new Domain();
+        domain.setUrl(url);
+        domain.setStatus(status);
+        return domain;
+    }
+
+    private ProductUrl productUrl(String path) {
+        ProductUrl productUrl = new ProductUrl();
+        productUrl.setUrl(domain.getUrl() + path);
+        productUrl.setUrlHash(UrlFingerprints.of(productUrl.getUrl()));
+        productUrl.setDomain(domain);
+        productUrl.setDiscoveredAt(LocalDateTime.now());
+        return productUrl;
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties(CrawlerProperties.class)
+    @Import({ CrawlStats.class, ProductUrlWriter.class })
+    static class StatsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -11,8 +11,9 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 
 import com.project.ecommerce_crawler.controller.CrawlerController;
 import com.project.ecommerce_crawler.repository.DomainRepository;
-import com.project.ecommerce_crawler.repository.ProductUrlRepository;
+import com.project.ecommerce_crawler.service.CrawlStats;
 import com.project.ecommerce_crawler.service.CrawlerScheduler;
+import com.project.ecommerce_crawler.service.ProductUrlExporter;
 
 @WebFluxTest(controllers = CrawlerController.class)
 public class CrawlerControllerTest {
@@ -30,7 +31,11 @@ public class CrawlerControllerTest {
     
     @SuppressWarnings("removal")
 	@MockBean
-    private ProductUrlRepository productUrlRepository;
+    private CrawlStats crawlStats;
+
+    @SuppressWarnings("removal")
+	@MockBean
+    private ProductUrlExporter productUrlExporter;
     
     @Test
     public void testInitializeCrawler() {
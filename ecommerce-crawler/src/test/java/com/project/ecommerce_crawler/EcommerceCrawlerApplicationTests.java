@@ -56,9 +56,10 @@ public class EcommerceCrawlerApplicationTests {
         
         List<ProductUrl> productUrls = crawlerService.extractProductUrls(domain, html);
         
-        assertEquals(2, productUrls.size());
+        assertEquals(3, productUrls.size());
         assertTrue(productUrls.stream().anyMatch(u -> u.getUrl().equals("https://www.example.com/product/123")));
         assertTrue(productUrls.stream().anyMatch(u -> u.getUrl().equals("https://www.example.com/item/456")));
+        assertTrue(productUrls.stream().anyMatch(u -> u.getUrl().equals("https://www.example.com/product/789")));
     }
     
     @Test
@@ -0,0 +1,115 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+
+import com.project.ecommerce_crawler.config.CrawlerConfig;
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.service.FetchLimits;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+public class FetchLimitsTest {
+    private static final String PAGE = "<html><body>" + "<a href=\"/product/1\">Shirt</a>".repeat(4000)
+            + "</body></html>";
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+    private FetchLimits fetchLimits;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        server = HttpServer.create()
+                .port(0)
+                .compress(true)
+                .route(routes -> routes
+                        .get("/page", (request, response) -> response.header("Content-Type", "text/html")
+                                .sendString(Mono.just(PAGE)))
+                        .get("/large", (request, response) -> response.header("Content-Type", "text/html; charset=utf-8")
+                                .sendString(Flux.range(0, 1000).map(i -> PAGE)))
+                        .get("/file", (request, response) -> response.header("Content-Type", "application/pdf")
+                                .sendString(Flux.range(0, 1000).map(i -> PAGE))))
+                .bindNow();
+
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getFetch().setMaxBodySize(DataSize.ofKilobytes(256));
+        connectionProvider = CrawlerConfig.connectionProvider(properties.getFetch());
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + server.port())
+                .clientConnector(new ReactorClientHttpConnector(
+                        CrawlerConfig.httpClient(properties.getFetch(), connectionProvider)))
+                .build();
+        meterRegistry = new SimpleMeterRegistry();
+        fetchLimits = new FetchLimits(properties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        connectionProvider.dispose();
+        server.disposeNow();
+    }
+
+    @Test
+    public void testReadsCompressedPageInFull() {
+        assertEquals(PAGE.getBytes(StandardCharsets.UTF_8).length, (long) fetch("/page"));
+        assertEquals(0, cutoffs("size"));
+    }
+
+    @Test
+    public void testStopsReadingAtMaxBodySize() {
+        assertEquals(DataSize.ofKilobytes(256).toBytes(), (long) fetch("/large"));
+        assertEquals(1, cutoffs("size"));
+    }
+
+    @Test
+    public void testSkipsUnsupportedContentType() {
+        Boolean accepted = webClient.get()
+                .uri("/file")
+                .exchangeToMono(response -> {
+                    boolean accepts = fetchLimits.accepts(response.headers().asHttpHeaders());
+                    return fetchLimits.discard(response).thenReturn(accepts);
+                })
+                .block(Duration.ofSeconds(5));
+        assertFalse(accepted);
+        assertEquals(1, cutoffs("content_type"));
+        assertTrue(fetch("/page") > 0);
+    }
+
+    private Long fetch(String path) {
+        return webClient.get()
+                .uri(path)
+                .exchangeToMono(response -> fetchLimits.body(response)
+                        .map(buffer -> {
+                            int size = buffer.readableByteCount();
+                            DataBufferUtils.release(buffer);
+                            return (long) size;
+                        })
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                        .reduce(0L, Long::sum))
+                .block(Duration.ofSeconds(10));
+    }
+
+    private double cutoffs(String reason) {
+        return meterRegistry.get("crawler.fetch.cutoff").tag("reason", reason).counter().count();
+    }
+}
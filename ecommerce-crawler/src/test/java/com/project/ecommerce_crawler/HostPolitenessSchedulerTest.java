@@ -0,0 +1,136 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.service.HostPolitenessScheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class HostPolitenessSchedulerTest {
+    private static final String URL = "https://www.example.com/product/1";
+
+    private CrawlerProperties properties;
+    private HostPolitenessScheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new CrawlerProperties();
+        properties.getPoliteness().setInitialRate(1000);
+        properties.getPoliteness().setMaxRate(1000);
+        properties.getPoliteness().setBurst(100);
+        properties.getPoliteness().setMaxConnectionsPerHost(2);
+        properties.getPoliteness().setMaxRetries(0);
+        scheduler = new HostPolitenessScheduler(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testCapsConcurrentRequestsPerHost() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        Mono<String> request = Mono.defer(() -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            return Mono.delay(Duration.ofMillis(20)).thenReturn("ok");
+        }).doFinally(signal -> active.decrementAndGet());
+
+        Long completed = Flux.range(0, 10)
+                .flatMap(i -> scheduler.schedule(URL, request))
+                .count()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(10L, completed);
+        assertEquals(2, maxActive.get());
+    }
+
+    @Test
+    public void testBlockingRequestsShareTheHostCap() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(threads.submit(() -> scheduler.execute(URL, () -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(20);
+                        return "ok";
+                    } finally {
+                        active.decrementAndGet();
+                    }
+                })));
+            }
+            // A reactive request for the same host queues behind the blocking ones.
+            String reactive = scheduler.schedule(URL, Mono.fromCallable(() -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                active.decrementAndGet();
+                return "ok";
+            })).block(Duration.ofSeconds(5));
+
+            for (Future<String> result : results) {
+                assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals("ok", reactive);
+            assertEquals(2, maxActive.get());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStreamedBodyHoldsTheConnectionSlot() {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        Flux<Integer> body = Flux.defer(() -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            return Flux.range(0, 3).delayElements(Duration.ofMillis(10));
+        }).doFinally(signal -> active.decrementAndGet());
+
+        Long read = Flux.range(0, 6)
+                .flatMap(i -> scheduler.schedule(URL, Mono.just("open"), opened -> body))
+                .count()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(18L, read);
+        assertEquals(2, maxActive.get());
+    }
+
+    @Test
+    public void testBacksOffOnTooManyRequests() {
+        double before = scheduler.currentRate(URL);
+        WebClientResponseException throttled = WebClientResponseException.create(
+                HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests", new HttpHeaders(), new byte[0], null);
+
+        scheduler.schedule(URL, Mono.error(throttled))
+                .onErrorResume(e -> Mono.empty())
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(before * properties.getPoliteness().getMultiplicativeDecrease(), scheduler.currentRate(URL));
+    }
+
+    @Test
+    public void testCrawlDelayCapsRate() {
+        scheduler.setCrawlDelay(URL, Duration.ofSeconds(2));
+
+        assertTrue(scheduler.currentRate(URL) <= 0.5);
+    }
+}
@@ -0,0 +1,97 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.service.LinkExtractor;
+import com.project.ecommerce_crawler.service.PageLinks;
+import com.project.ecommerce_crawler.service.ProductClassifier;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+
+public class LinkExtractorTest {
+    private static final String HTML = """
+        <!DOCTYPE html>
+        <html>
+            <head>
+                <link rel="canonical" href="https://www.example.com/category/shirts">
+                <script>var html = '<a href="/product/in-script">';</script>
+                <style>a[href="/product/in-style"] { color: red; }</style>
+            </head>
+            <body>
+                <!-- <a href="/product/in-comment">hidden</a> -->
+                <a class=tile href=/product/1>Unquoted</a>
+                <A HREF='/product/2?size=m&amp;color=red'>Upper case</A>
+                <a data-href="/ignored" href = "/category/shoes" >Spaced</a>
+                <a href="/product/1">Duplicate</a>
+                <a href="https://other.example.org/product/3">Other host</a>
+                <a name="top">No href</a>
+            </body>
+        </html>
+        """;
+
+    private LinkExtractor linkExtractor;
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        CrawlerProperties properties = new CrawlerProperties();
+        UrlNormalizer urlNormalizer = new UrlNormalizer(properties);
+        linkExtractor = new LinkExtractor(properties, urlNormalizer, new ProductClassifier(properties, urlNormalizer));
+        domain = new Domain();
+        domain.setUrl("https://www.example.com");
+    }
+
+    @Test
+    public void testClassifiesLinksInOnePass() {
+        PageLinks links = linkExtractor.extract(domain, HTML);
+
+        assertEquals(List.of("https://www.example.com/product/1",
+                "https://www.example.com/product/2?color=red&size=m"), links.productUrls());
+        assertEquals(List.of("https://www.example.com/category/shoes"), links.navigationLinks());
+        assertEquals("https://www.example.com/category/shirts", links.canonicalUrl());
+    }
+
+    @Test
+    public void testSplitsAcrossBufferBoundaries() {
+        byte[] bytes = HTML.getBytes(StandardCharsets.UTF_8);
+        DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
+
+        for (int chunkSize : new int[] { 1, 3, 7, 64 }) {
+            LinkExtractor.Session session = linkExtractor.open(domain);
+            for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+                int length = Math.min(chunkSize, bytes.length - offset);
+                session.feed(factory.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+            }
+
+            assertEquals(linkExtractor.extract(domain, HTML), session.finish());
+        }
+    }
+
+    @Test
+    public void testDetectsProductMarkup() {
+        assertFalse(linkExtractor.extract(domain, HTML).productMarkup());
+        assertTrue(linkExtractor.extract(domain,
+                "<head><META property=\"og:type\" content=\"product.item\"></head>").productMarkup());
+        assertTrue(linkExtractor.extract(domain, """
+                <script type="application/ld+json">
+                {"@context": "https://schema.org", "@type": ["Product", "Thing"], "name": "Linen shirt"}
+                </script>
+                """).productMarkup());
+        assertFalse(linkExtractor.extract(domain, """
+                <script type="application/ld+json">{"@type": "BreadcrumbList", "name": "Product"}</script>
+                <script>var product = {"@type": "Product"};</script>
+                <meta name="description" content="product">
+                """).productMarkup());
+    }
+}
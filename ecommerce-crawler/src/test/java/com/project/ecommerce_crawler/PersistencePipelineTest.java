@@ -0,0 +1,87 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawledPage;
+import com.project.ecommerce_crawler.repository.DomainRepository;
+import com.project.ecommerce_crawler.service.CrawlStats;
+import com.project.ecommerce_crawler.service.CrawledPageWriter;
+import com.project.ecommerce_crawler.service.PersistencePipeline;
+import com.project.ecommerce_crawler.service.ProductUrlWriter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PersistencePipelineTest {
+
+    private ProductUrlWriter productUrlWriter;
+    private CrawledPageWriter crawledPageWriter;
+    private SimpleMeterRegistry meterRegistry;
+    private PersistencePipeline pipeline;
+
+    @BeforeEach
+    public void setUp() {
+        productUrlWriter = mock(ProductUrlWriter.class);
+        crawledPageWriter = mock(CrawledPageWriter.class);
+        meterRegistry = new SimpleMeterRegistry();
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getPersistence().setQueueCapacity(1);
+        properties.getPersistence().setFlushInterval(Duration.ofMillis(50));
+        pipeline = new PersistencePipeline(productUrlWriter, crawledPageWriter, mock(DomainRepository.class),
+                mock(CrawlStats.class), properties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    @Test
+    public void testFullQueueStallsTheSubmitterUntilThereIsRoom() throws Exception {
+        pipeline.saveCrawledPage(new CrawledPage()).block();
+        CompletableFuture<Void> stalled = pipeline.saveCrawledPage(new CrawledPage()).toFuture();
+
+        Thread.sleep(100);
+        assertFalse(stalled.isDone());
+        assertEquals(1, pipeline.queueDepth());
+
+        pipeline.start();
+        stalled.get(5, TimeUnit.SECONDS);
+        verify(crawledPageWriter, timeout(5000).times(2)).submit(any());
+        assertEquals(1, meterRegistry.timer("crawler.persistence.stall").count());
+        assertTrue(meterRegistry.timer("crawler.persistence.stall").totalTime(TimeUnit.MILLISECONDS) >= 100);
+    }
+
+    @Test
+    public void testKeepsRunningWhenTasksAndFlushesFail() {
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+                .doNothing()
+                .when(crawledPageWriter).submit(any());
+        when(productUrlWriter.flush()).thenThrow(new DataAccessResourceFailureException("connection lost"));
+        pipeline.start();
+
+        pipeline.saveCrawledPage(new CrawledPage()).block();
+        pipeline.saveCrawledPage(new CrawledPage()).block();
+
+        verify(crawledPageWriter, timeout(5000).times(2)).submit(any());
+        verify(productUrlWriter, timeout(5000).atLeast(2)).flush();
+        verify(crawledPageWriter, timeout(5000).atLeast(2)).flush();
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.service.ProductClassifier;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+
+public class ProductClassifierTest {
+
+    private CrawlerProperties properties;
+    private ProductClassifier productClassifier;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new CrawlerProperties();
+        CrawlerProperties.ClassifierRules rules = new CrawlerProperties.ClassifierRules();
+        rules.setProductPatterns(List.of("/p/\\d+", "/buy/[^/]+\\.html$"));
+        rules.setExcludePatterns(List.of("/help/"));
+        properties.getClassifier().getDomains().put("shop.example.org", rules);
+        properties.getClassifier().setExcludePatterns(List.of("/blog/"));
+        productClassifier = new ProductClassifier(properties, new UrlNormalizer(properties));
+    }
+
+    @Test
+    public void testMatchesDefaultPatternsOnPathOnly() {
+        assertTrue(productClassifier.isProductUrl("https://www.example.com/product/123"));
+        assertTrue(productClassifier.isProductUrl("https://www.example.com/shirts-p-42?color=red"));
+        assertFalse(productClassifier.isProductUrl("https://www.example.com/blog/product/launch"));
+        assertFalse(productClassifier.isProductUrl("https://shop-p-x.example.com/about"));
+    }
+
+    @Test
+    public void testDomainPatternsReplaceDefaults() {
+        assertTrue(productClassifier.isProductUrl("https://www.shop.example.org/p/789"));
+        assertTrue(productClassifier.isProductUrl("https://shop.example.org/buy/linen-shirt.html"));
+        assertFalse(productClassifier.isProductUrl("https://shop.example.org/help/p/2"));
+        assertFalse(productClassifier.isProductUrl("https://shop.example.org/p/returns"));
+        assertFalse(productClassifier.isProductUrl("https://shop.example.org/product/1"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.ProductUrl;
+import com.project.ecommerce_crawler.repository.DomainRepository;
+import com.project.ecommerce_crawler.repository.ProductUrlRepository;
+import com.project.ecommerce_crawler.service.ProductUrlExporter;
+import com.project.ecommerce_crawler.service.UrlFingerprints;
+
+@DataJpaTest(properties = { "crawler.export.page-size=2", "crawler.export.fetch-size=2" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ProductUrlExporterTest.ExporterConfig.class)
+public class ProductUrlExporterTest {
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2025, 6, 1, 10, 0);
+    private static final LocalDateTime DAY_TWO = DAY_ONE.plusDays(1);
+
+    @Autowired
+    private ProductUrlExporter productUrlExporter;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private ProductUrlRepository productUrlRepository;
+
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        domain = domainRepository.save(domain("https://www.example.com"));
+        Domain other = domainRepository.save(domain("https://shop.example.org"));
+        productUrlRepository.saveAll(List.of(
+                productUrl(domain, "/product/1", DAY_ONE),
+                productUrl(other, "/product/1", DAY_ONE),
+                productUrl(domain, "/product/2,3", DAY_ONE),
+                productUrl(domain, "/product/\"4\"", DAY_TWO)));
+        productUrlRepository.flush();
+    }
+
+    @Test
+    public void testPagesByKeyset() {
+        ProductUrlExporter.Page first = productUrlExporter.page(domain.getId(), null, 0, null);
+        assertEquals(List.of("https://www.example.com/product/1", "https://www.example.com/product/2,3"),
+                urls(first));
+
+        ProductUrlExporter.Page second = productUrlExporter.page(domain.getId(), null, first.next(), null);
+        assertEquals(List.of("https://www.example.com/product/\"4\""), urls(second));
+        assertNull(second.next());
+
+        assertEquals(1, productUrlExporter.page(domain.getId(), DAY_TWO, 0, 10).items().size());
+    }
+
+    @Test
+    public void testStreamsNdjsonAndCsv() {
+        String[] ndjson = export(ProductUrlExporter.Format.NDJSON, null).split("\n");
+        assertEquals(3, ndjson.length);
+        assertEquals("\"url\":\"https://www.example.com/product/\\\"4\\\"\"",
+                ndjson[2].substring(ndjson[2].indexOf("\"url\""), ndjson[2].indexOf(",\"urlHash\"")));
+
+        String[] csv = export(ProductUrlExporter.Format.CSV, DAY_TWO).split("\r\n");
+        assertEquals(2, csv.length);
+        assertEquals("id,url,url_hash,discovered_at", csv[0]);
+        assertEquals("\"https://www.example.com/product/\"\"4\"\"\"", csv[1].split(",")[1]);
+        assertEquals("2025-06-02T10:00", csv[1].split(",")[3]);
+    }
+
+    private String export(ProductUrlExporter.Format format, LocalDateTime since) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productUrlExporter.export(domain.getId(), since, 0, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> urls(ProductUrlExporter.Page page) {
+        return page.items().stream().map(ProductUrlExporter.Row::url).toList();
+    }
+
+    private static Domain domain(String url) {
+        Domain domain = new Domain();
+        domain.setUrl(url);
+        return domain;
+    }
+
+    private static ProductUrl productUrl(Domain domain, String path, LocalDateTime discoveredAt) {
+        ProductUrl productUrl = new ProductUrl();
+        productUrl.setUrl(domain.getUrl() + path);
+        productUrl.setUrlHash(UrlFingerprints.of(productUrl.getUrl()));
+        productUrl.setDomain(domain);
+        productUrl.setDiscoveredAt(discoveredAt);
+        return productUrl;
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties(CrawlerProperties.class)
+    @Import(ProductUrlExporter.class)
+    static class ExporterConfig {
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.config.ProductUrlSchema;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+public class ProductUrlSchemaTest {
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    public static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    public static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    public void testMigratesLegacyRowsWithTheCrawlersNormalizationAndFingerprint() throws Exception {
+        DataSource dataSource = postgres.getPostgresDatabase();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE domain (id BIGINT PRIMARY KEY, url VARCHAR(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE product_url (id BIGINT PRIMARY KEY, domain_id BIGINT NOT NULL, "
+                + "url VARCHAR(2048) NOT NULL, url_hash BIGINT, discovered_at TIMESTAMP(6))");
+        jdbcTemplate.update("INSERT INTO domain VALUES (1, 'https://www.example.com')");
+        jdbcTemplate.update("INSERT INTO product_url (id, domain_id, url) VALUES "
+                + "(1, 1, 'https://WWW.example.com:443/product/1?utm_source=mail#reviews'), "
+                + "(2, 1, 'https://www.example.com/product/1'), "
+                + "(3, 1, 'https://cdn.example.net/product/2')");
+
+        CrawlerProperties properties = new CrawlerProperties();
+        UrlNormalizer urlNormalizer = new UrlNormalizer(properties);
+        new ProductUrlSchema(dataSource, properties, urlNormalizer).afterPropertiesSet();
+
+        assertEquals("p", jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('product_url')", String.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('product_url_legacy')::text", String.class));
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, url_hash, path FROM product_url ORDER BY id");
+        assertEquals(2, rows.size());
+        assertEquals(1L, rows.get(0).get("id"));
+        assertEquals("/product/1", rows.get(0).get("path"));
+        assertEquals(urlNormalizer.fingerprint("https://www.example.com/product/1"), rows.get(0).get("url_hash"));
+        assertEquals("https://cdn.example.net/product/2", rows.get(1).get("path"));
+        assertEquals(urlNormalizer.fingerprint("https://cdn.example.net/product/2"), rows.get(1).get("url_hash"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.ProductUrl;
+import com.project.ecommerce_crawler.repository.DomainRepository;
+import com.project.ecommerce_crawler.repository.ProductUrlRepository;
+import com.project.ecommerce_crawler.service.CrawlStats;
+import com.project.ecommerce_crawler.service.ProductUrlWriter;
+import com.project.ecommerce_crawler.service.UrlFingerprints;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = { "crawler.persistence.batch-size=4", "crawler.persistence.flush-interval=1h" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ProductUrlWriterTest.WriterConfig.class)
+public class ProductUrlWriterTest {
+
+    @Autowired
+    private ProductUrlWriter productUrlWriter;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private ProductUrlRepository productUrlRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CrawlerProperties crawlerProperties;
+
+    @Autowired
+    private CrawlStats crawlStats;
+
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        domain = new Domain();
+        domain.setUrl("https://www.example.com");
+        domain = domainRepository.saveAndFlush(domain);
+    }
+
+    @Test
+    public void testFlushSkipsDuplicateUrls() {
+        productUrlWriter.submit(List.of(productUrl("/product/1"), productUrl("/product/2"), productUrl("/product/1")));
+
+        assertEquals(2, productUrlWriter.pending());
+        assertEquals(2, productUrlWriter.flush());
+
+        productUrlWriter.submit(List.of(productUrl("/product/2"), productUrl("/product/3")));
+
+        assertEquals(1, productUrlWriter.flush());
+        assertEquals(3, productUrlRepository.count());
+    }
+
+    @Test
+    public void testFlushesWhenBatchIsFull() {
+        for (int i = 0; i < 5; i++) {
+            productUrlWriter.submit(List.of(productUrl("/product/" + i)));
+        }
+
+        assertEquals(1, productUrlWriter.pending());
+        assertEquals(4, productUrlRepository.count());
+
+        assertEquals(1, productUrlWriter.flush());
+        assertEquals(5, productUrlRepository.count());
+    }
+
+    @Test
+    public void testStoresPathsRelativeToTheDomain() {
+        ProductUrl sameOrigin = productUrl("/product/1?size=m");
+        ProductUrl otherOrigin = new ProductUrl();
+        otherOrigin.setUrl("https://shop.example.net/product/2");
+        otherOrigin.setUrlHash(UrlFingerprints.of(otherOrigin.getUrl()));
+        otherOrigin.setDomain(domain);
+        otherOrigin.setDiscoveredAt(LocalDateTime.now());
+        productUrlWriter.submit(List.of(sameOrigin, otherOrigin));
+        productUrlWriter.flush();
+
+        List<ProductUrl> stored = productUrlRepository.findAll().stream()
+                .sorted(Comparator.comparing(ProductUrl::getId))
+                .toList();
+        assertEquals("/product/1?size=m", stored.get(0).getPath());
+        assertEquals("https://www.example.com/product/1?size=m", stored.get(0).getUrl());
+        assertEquals("https://shop.example.net/product/2", stored.get(1).getPath());
+        assertEquals("https://shop.example.net/product/2", stored.get(1).getUrl());
+        assertTrue(productUrlRepository.existsByDomainIdAndUrlHash(domain.getId(), sameOrigin.getUrlHash()));
+        assertFalse(productUrlRepository.existsByDomainIdAndUrlHash(domain.getId(),
+                UrlFingerprints.of("https://www.example.com/product/3")));
+    }
+
+    @Test
+    public void testKeepsABatchThatFailedToWrite() {
+        JdbcTemplate failing = spy(jdbcTemplate);
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+                .doCallRealMethod()
+                .when(failing).update(anyString(), any(Object[].class));
+        ProductUrlWriter writer = new ProductUrlWriter(failing, crawlerProperties, new SimpleMeterRegistry(),
+                crawlStats);
+        writer.submit(List.of(productUrl("/product/1"), productUrl("/product/2")));
+
+        assertThrows(DataAccessResourceFailureException.class, writer::flush);
+        assertEquals(2, writer.pending());
+
+        writer.submit(List.of(productUrl("/product/3")));
+        assertEquals(3, writer.flush());
+        assertEquals(0, writer.pending());
+        assertEquals(3, productUrlRepository.count());
+    }
+
+    @Test
+    public void testRejectsUrlsWithoutFingerprint() {
+        ProductUrl unhashed = productUrl("/product/2");
+        unhashed.setUrlHash(null);
+
+        assertThrows(NullPointerException.class,
+                () -> productUrlWriter.submit(List.of(productUrl("/product/1"), unhashed)));
+        assertEquals(0, productUrlWriter.pending());
+    }
+
+    private ProductUrl productUrl(String path) {
+        ProductUrl productUrl = new ProductUrl();
+        productUrl.setUrl(domain.getUrl() + path);
+        productUrl.setUrlHash(UrlFingerprints.of(productUrl.getUrl()));
+        productUrl.setDomain(domain);
+        productUrl.setDiscoveredAt(LocalDateTime.now());
+        return productUrl;
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties(CrawlerProperties.class)
+    @Import({ ProductUrlWriter.class, CrawlStats.class })
+    static class WriterConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
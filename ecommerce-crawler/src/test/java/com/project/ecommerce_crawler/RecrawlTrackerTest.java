@@ -0,0 +1,131 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawledPage;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.repository.CrawledPageRepository;
+import com.project.ecommerce_crawler.repository.DomainRepository;
+import com.project.ecommerce_crawler.service.CrawledPageWriter;
+import com.project.ecommerce_crawler.service.RecrawlTracker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest(properties = "crawler.persistence.batch-size=100")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(RecrawlTrackerTest.TrackerConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RecrawlTrackerTest {
+    private static final String URL = "https://www.example.com/category/shirts";
+
+    @Autowired
+    private RecrawlTracker recrawlTracker;
+
+    @Autowired
+    private CrawledPageWriter crawledPageWriter;
+
+    @Autowired
+    private CrawledPageRepository crawledPageRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        domain = new Domain();
+        domain.setUrl("https://www.example.com");
+        domain = domainRepository.save(domain);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        crawledPageRepository.deleteAll();
+        domainRepository.delete(domain);
+    }
+
+    @Test
+    public void testAdaptsIntervalToChanges() {
+        CrawledPage page = recrawlTracker.lookup(domain, URL, 42L, null).block();
+        assertNull(page.getId());
+        assertTrue(recrawlTracker.isDue(page));
+
+        assertTrue(recrawlTracker.recordFetch(page, "\"v1\"", "Tue, 01 Oct 2024 10:00:00 GMT", 7L));
+        assertEquals(Duration.ofDays(1).toSeconds(), page.getRecrawlIntervalSeconds());
+        crawledPageWriter.submit(page);
+        crawledPageWriter.flush();
+
+        CrawledPage stored = recrawlTracker.lookup(domain, URL, 42L, null).block();
+        assertNotNull(stored.getId());
+        assertFalse(recrawlTracker.isDue(stored));
+        HttpHeaders headers = new HttpHeaders();
+        recrawlTracker.addConditionalHeaders(headers, stored);
+        assertEquals("\"v1\"", headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("Tue, 01 Oct 2024 10:00:00 GMT", headers.getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+
+        assertFalse(recrawlTracker.recordFetch(stored, "\"v1\"", null, 7L));
+        assertEquals(Duration.ofHours(36).toSeconds(), stored.getRecrawlIntervalSeconds());
+        recrawlTracker.recordNotModified(stored);
+        assertEquals(Duration.ofHours(54).toSeconds(), stored.getRecrawlIntervalSeconds());
+        assertTrue(recrawlTracker.recordFetch(stored, "\"v2\"", null, 8L));
+        assertEquals(Duration.ofHours(27).toSeconds(), stored.getRecrawlIntervalSeconds());
+        crawledPageWriter.submit(stored);
+        crawledPageWriter.flush();
+
+        CrawledPage reloaded = recrawlTracker.lookup(domain, URL, 42L, null).block();
+        assertEquals("\"v2\"", reloaded.getEtag());
+        assertEquals(8L, reloaded.getContentHash());
+        assertTrue(reloaded.getNextFetchAt().isAfter(LocalDateTime.now().plusHours(26)));
+    }
+
+    @Test
+    public void testListsKnownChildren() {
+        CrawledPage parent = recrawlTracker.lookup(domain, URL, 1L, null).block();
+        for (long hash = 2; hash <= 3; hash++) {
+            CrawledPage child = recrawlTracker.lookup(domain, URL + "?page=" + hash, hash, 1L).block();
+            recrawlTracker.recordFetch(child, null, null, hash);
+            crawledPageWriter.submit(child);
+        }
+        crawledPageWriter.flush();
+
+        assertEquals(List.of(URL + "?page=2", URL + "?page=3"), recrawlTracker.knownChildren(parent).block());
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties(CrawlerProperties.class)
+    @Import({ RecrawlTracker.class, CrawledPageWriter.class })
+    static class TrackerConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
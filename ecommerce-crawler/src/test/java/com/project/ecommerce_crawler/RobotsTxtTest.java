@@ -0,0 +1,137 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.service.RobotsTxt;
+import com.project.ecommerce_crawler.service.RobotsTxtService;
+
+import reactor.core.publisher.Mono;
+
+public class RobotsTxtTest {
+    private static final String ROBOTS = """
+        # Shared rules
+        User-agent: *
+        Disallow: /checkout
+        Disallow: /*?*sort=
+        Allow: /checkout/help
+        Crawl-delay: 1
+
+        User-agent: SomeOtherBot
+        User-Agent: ecommerce-crawler/2.0
+        Disallow: /search
+        Disallow: /*.pdf$
+        Allow: /search/products
+        Disallow: /private
+        Allow: /private
+        Crawl-delay: 2.5
+
+        Sitemap: https://www.example.com/sitemap_index.xml
+        """;
+
+    @Test
+    public void testUsesMostSpecificAgentGroup() {
+        RobotsTxt robotsTxt = RobotsTxt.parse(ROBOTS, "ecommerce-crawler");
+
+        assertTrue(robotsTxt.isAllowed("https://www.example.com/checkout"));
+        assertFalse(robotsTxt.isAllowed("https://www.example.com/search?q=shirt"));
+        assertTrue(robotsTxt.isAllowed("https://www.example.com/search/products/1"));
+        assertFalse(robotsTxt.isAllowed("https://www.example.com/docs/size-chart.pdf"));
+        assertTrue(robotsTxt.isAllowed("https://www.example.com/docs/size-chart.pdf?download=1"));
+        assertTrue(robotsTxt.isAllowed("https://www.example.com/private/page"));
+        assertEquals(Duration.ofMillis(2500), robotsTxt.crawlDelay());
+        assertEquals(List.of("https://www.example.com/sitemap_index.xml"), robotsTxt.sitemaps());
+    }
+
+    @Test
+    public void testFallsBackToWildcardGroup() {
+        RobotsTxt robotsTxt = RobotsTxt.parse(ROBOTS, "another-crawler");
+
+        assertFalse(robotsTxt.isAllowed("https://www.example.com/checkout/cart"));
+        assertTrue(robotsTxt.isAllowed("https://www.example.com/checkout/help/returns"));
+        assertFalse(robotsTxt.isAllowed("https://www.example.com/category/shoes?page=2&sort=price"));
+        assertTrue(robotsTxt.isAllowed("https://www.example.com/category/shoes?page=2"));
+        assertTrue(robotsTxt.isAllowed("https://www.example.com/robots.txt"));
+        assertEquals(Duration.ofSeconds(1), robotsTxt.crawlDelay());
+        assertNull(RobotsTxt.parse("", "another-crawler").crawlDelay());
+    }
+
+    @Test
+    public void testCachesCompiledRulesPerOrigin() {
+        AtomicInteger fetches = new AtomicInteger();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    fetches.incrementAndGet();
+                    HttpStatus status = switch (request.url().getHost()) {
+                        case "down.example.com" -> HttpStatus.SERVICE_UNAVAILABLE;
+                        case "missing.example.com" -> HttpStatus.NOT_FOUND;
+                        default -> HttpStatus.OK;
+                    };
+                    return Mono.just(ClientResponse.create(status).body("User-agent: *\nDisallow: /cart").build());
+                })
+                .build();
+        RobotsTxtService service = new RobotsTxtService(webClient, new CrawlerProperties());
+
+        assertFalse(service.rules("https://www.example.com/cart").block().isAllowed("https://www.example.com/cart"));
+        assertTrue(service.rules("https://WWW.example.com/p/1").block().isAllowed("https://www.example.com/p/1"));
+        assertEquals(1, fetches.get());
+
+        assertTrue(service.rules("https://down.example.com/").block().isUnreachable());
+        assertTrue(service.rules("https://missing.example.com/").block().isAllowed("https://missing.example.com/cart"));
+    }
+
+    @Test
+    public void testFollowsRedirectsToTheMovedFile() {
+        List<String> fetched = new ArrayList<>();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    fetched.add(request.url().toString());
+                    ClientResponse response = switch (request.url().getHost()) {
+                        case "example.com" -> ClientResponse.create(HttpStatus.MOVED_PERMANENTLY)
+                                .header("Location", "https://www.example.com/robots.txt").build();
+                        case "loop.example.com" -> ClientResponse.create(HttpStatus.FOUND)
+                                .header("Location", "/robots.txt").build();
+                        default -> ClientResponse.create(HttpStatus.OK).body("User-agent: *\nDisallow: /cart").build();
+                    };
+                    return Mono.just(response);
+                })
+                .build();
+        RobotsTxtService service = new RobotsTxtService(webClient, new CrawlerProperties());
+
+        assertFalse(service.rules("http://example.com/cart").block().isAllowed("http://example.com/cart"));
+        assertEquals(List.of("http://example.com/robots.txt", "https://www.example.com/robots.txt"), fetched);
+
+        fetched.clear();
+        assertTrue(service.rules("https://loop.example.com/").block().isAllowed("https://loop.example.com/cart"));
+        assertEquals(6, fetched.size());
+    }
+
+    @Test
+    public void testParsesTheStartOfAnOversizedFile() {
+        // Well above the 256 KB the default codecs would buffer.
+        String robots = "User-agent: *\nDisallow: /cart\n" + "# padding\n".repeat(80_000) + "Disallow: /late\n";
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK).body(robots).build()))
+                .build();
+        RobotsTxtService service = new RobotsTxtService(webClient, new CrawlerProperties());
+
+        RobotsTxt robotsTxt = service.rules("https://www.example.com/").block();
+
+        assertFalse(robotsTxt.isUnreachable());
+        assertFalse(robotsTxt.isAllowed("https://www.example.com/cart"));
+        assertTrue(robotsTxt.isAllowed("https://www.example.com/late"));
+    }
+}
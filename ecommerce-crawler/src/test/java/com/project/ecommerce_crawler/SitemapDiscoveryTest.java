@@ -0,0 +1,122 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.service.HostPolitenessScheduler;
+import com.project.ecommerce_crawler.service.LinkExtractor;
+import com.project.ecommerce_crawler.service.ProductClassifier;
+import com.project.ecommerce_crawler.service.SitemapDiscovery;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class SitemapDiscoveryTest {
+    private static final String INDEX = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <sitemapindex xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+          <sitemap><loc>https://www.example.com/sitemap_products.xml.gz</loc><lastmod>2024-06-01</lastmod></sitemap>
+          <sitemap><loc>https://www.example.com/sitemap_archive.xml</loc><lastmod>2023-01-01T00:00:00+00:00</lastmod></sitemap>
+        </sitemapindex>
+        """;
+    private static final String PRODUCTS = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9"
+                xmlns:image="http://www.google.com/schemas/sitemap-image/1.1">
+          <url>
+            <loc>https://www.example.com/product/1?utm_source=sitemap</loc>
+            <lastmod>2024-06-02T10:00:00Z</lastmod>
+            <image:image><image:loc>https://cdn.example.com/product/1.jpg</image:loc></image:image>
+          </url>
+          <url><loc>https://www.example.com/product/2</loc><lastmod>2023-12-31</lastmod></url>
+          <url><loc>https://www.example.com/product/3</loc></url>
+          <url><loc>https://www.example.com/about-us</loc></url>
+          <url><loc>https://other.example.org/product/4</loc></url>
+        </urlset>
+        """;
+
+    private final List<String> fetched = new CopyOnWriteArrayList<>();
+    private SitemapDiscovery sitemapDiscovery;
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        Map<String, byte[]> bodies = Map.of(
+                "/sitemap_index.xml", INDEX.getBytes(StandardCharsets.UTF_8),
+                "/sitemap_products.xml.gz", gzip(PRODUCTS));
+        DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    String path = request.url().getPath();
+                    fetched.add(path);
+                    byte[] body = bodies.get(path);
+                    return Mono.just(body == null
+                            ? ClientResponse.create(HttpStatus.NOT_FOUND).build()
+                            : ClientResponse.create(HttpStatus.OK).body(Flux.just(factory.wrap(body))).build());
+                })
+                .build();
+
+        CrawlerProperties properties = new CrawlerProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UrlNormalizer urlNormalizer = new UrlNormalizer(properties);
+        sitemapDiscovery = new SitemapDiscovery(webClient, new HostPolitenessScheduler(properties, meterRegistry),
+                urlNormalizer, new LinkExtractor(properties, urlNormalizer,
+                        new ProductClassifier(properties, urlNormalizer)), properties, meterRegistry);
+
+        domain = new Domain();
+        domain.setUrl("https://www.example.com");
+    }
+
+    @Test
+    public void testStreamsIndexAndGzipSitemaps() {
+        List<String> urls = sitemapDiscovery.productUrls(domain, List.of("https://www.example.com/sitemap_index.xml"))
+                .collectList()
+                .block();
+
+        assertEquals(List.of("https://www.example.com/product/1", "https://www.example.com/product/2",
+                "https://www.example.com/product/3"), urls);
+    }
+
+    @Test
+    public void testSkipsEntriesUnchangedSinceLastCrawl() {
+        domain.setLastCrawledAt(LocalDateTime.of(2024, 1, 15, 0, 0));
+
+        List<String> urls = sitemapDiscovery.productUrls(domain,
+                List.of("https://www.example.com/sitemap_index.xml", "https://www.example.com/missing.xml"))
+                .collectList()
+                .block();
+
+        assertEquals(List.of("https://www.example.com/product/1", "https://www.example.com/product/3"), urls);
+        assertEquals(List.of("/sitemap_index.xml", "/sitemap_products.xml.gz", "/missing.xml"), fetched);
+    }
+
+    private static byte[] gzip(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
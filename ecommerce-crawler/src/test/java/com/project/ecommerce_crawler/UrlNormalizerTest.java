@@ -0,0 +1,65 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+
+public class UrlNormalizerTest {
+
+    private UrlNormalizer urlNormalizer;
+    private UrlNormalizer.Base base;
+
+    @BeforeEach
+    public void setUp() {
+        CrawlerProperties properties = new CrawlerProperties();
+        CrawlerProperties.DomainRules rules = new CrawlerProperties.DomainRules();
+        rules.setStripParams(List.of("color"));
+        rules.setKeepParams(List.of("sort"));
+        rules.setProductIdPattern("/p/(\\d+)");
+        properties.getNormalization().getDomains().put("shop.example.org", rules);
+
+        urlNormalizer = new UrlNormalizer(properties);
+        base = urlNormalizer.base("https://WWW.Example.com:443/category/men/shirts?page=2");
+    }
+
+    @Test
+    public void testResolvesRelativeLinks() {
+        assertEquals("https://www.example.com/category/shoes", urlNormalizer.normalize(base, "../shoes"));
+        assertEquals("https://www.example.com/category/men/jeans", urlNormalizer.normalize(base, "jeans"));
+        assertEquals("https://www.example.com/category/men/shirts?page=3", urlNormalizer.normalize(base, "?page=3"));
+        assertEquals("https://cdn.example.com/product/1", urlNormalizer.normalize(base, "//CDN.example.com/product/1"));
+        assertEquals("https://www.example.com/", urlNormalizer.normalize(base, "/../.."));
+        assertNull(urlNormalizer.normalize(base, "#reviews"));
+        assertNull(urlNormalizer.normalize(base, "mailto:support@example.com"));
+        assertNull(urlNormalizer.normalize(base, "javascript:void(0)"));
+    }
+
+    @Test
+    public void testCanonicalisesAbsoluteUrls() {
+        assertEquals("http://www.example.com/a/c?a=1&b=2", urlNormalizer.normalize(
+                "HTTP://user@www.example.com.:80/a/./b/../c;jsessionid=ABC?utm_source=x&b=2&&a=1&sort=price#top"));
+        assertEquals("https://www.example.com/", urlNormalizer.normalize("https://www.example.com"));
+        assertEquals("https://www.example.com:8443/a%2Fb", urlNormalizer.normalize("https://www.example.com:8443/a%2fb"));
+        assertEquals("https://www.example.com/search?q=shirt", urlNormalizer.normalize(
+                "https://www.example.com/search?fbclid=1&q=shirt&SessionId=9"));
+    }
+
+    @Test
+    public void testAppliesDomainRules() {
+        assertEquals("https://shop.example.org/shirt?size=m&sort=price", urlNormalizer.normalize(
+                "https://shop.example.org/shirt?sort=price&color=red&size=m"));
+        assertEquals("123", urlNormalizer.productId("https://shop.example.org/red-shirt/p/123"));
+        assertEquals(urlNormalizer.fingerprint("https://shop.example.org/red-shirt/p/123"),
+                urlNormalizer.fingerprint("https://shop.example.org/shirt/p/123?size=m"));
+        assertNotEquals(urlNormalizer.fingerprint("https://www.example.com/red-shirt/p/123"),
+                urlNormalizer.fingerprint("https://www.example.com/shirt/p/123"));
+    }
+}
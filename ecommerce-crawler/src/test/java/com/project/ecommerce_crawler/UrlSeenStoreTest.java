@@ -0,0 +1,78 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.service.FingerprintSet;
+import com.project.ecommerce_crawler.service.UrlFingerprints;
+import com.project.ecommerce_crawler.service.UrlSeenStore;
+
+public class UrlSeenStoreTest {
+
+    @TempDir
+    Path snapshotDir;
+
+    private UrlSeenStore store;
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getDedup().setInitialCapacity(16);
+        properties.getDedup().setStripes(4);
+        properties.getDedup().setSnapshotDir(snapshotDir.toString());
+        store = new UrlSeenStore(properties);
+
+        domain = new Domain();
+        domain.setId(7L);
+        domain.setUrl("https://www.example.com");
+    }
+
+    @Test
+    public void testNewEpochForgetsPreviousRun() {
+        store.open(domain, false);
+        assertTrue(store.markSeen(domain, UrlFingerprints.of("https://www.example.com/")));
+        assertFalse(store.markSeen(domain, UrlFingerprints.of("https://www.example.com/")));
+        store.close(domain);
+
+        store.open(domain, false);
+        assertEquals(2, store.epoch(domain));
+        assertTrue(store.markSeen(domain, UrlFingerprints.of("https://www.example.com/")));
+    }
+
+    @Test
+    public void testResumeRestoresSnapshot() {
+        store.open(domain, false);
+        for (int i = 0; i < 1000; i++) {
+            store.markSeen(domain, UrlFingerprints.of("https://www.example.com/category/" + i));
+        }
+        store.close(domain);
+
+        store.open(domain, true);
+        assertEquals(1, store.epoch(domain));
+        assertEquals(1000, store.size(domain));
+        assertFalse(store.markSeen(domain, UrlFingerprints.of("https://www.example.com/category/42")));
+        assertTrue(store.markSeen(domain, UrlFingerprints.of("https://www.example.com/category/1000")));
+    }
+
+    @Test
+    public void testFingerprintSetIsExactAcrossResizes() {
+        FingerprintSet set = new FingerprintSet(4, 16);
+        for (long i = 0; i < 100_000; i++) {
+            assertTrue(set.add(i * 0x9E3779B97F4A7C15L));
+        }
+        for (long i = 0; i < 100_000; i++) {
+            assertFalse(set.add(i * 0x9E3779B97F4A7C15L));
+        }
+        assertEquals(100_000, set.size());
+    }
+}
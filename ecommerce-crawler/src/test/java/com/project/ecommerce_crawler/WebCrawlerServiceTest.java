@@ -0,0 +1,191 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.CrawlStatus;
+import com.project.ecommerce_crawler.model.CrawledPage;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.model.FrontierEntry;
+import com.project.ecommerce_crawler.model.ProductUrl;
+import com.project.ecommerce_crawler.service.BlockingCrawlEngine;
+import com.project.ecommerce_crawler.service.CrawlCheckpoint;
+import com.project.ecommerce_crawler.service.CrawlFrontier;
+import com.project.ecommerce_crawler.service.CrawlMetrics;
+import com.project.ecommerce_crawler.service.CrawlStats;
+import com.project.ecommerce_crawler.service.FetchLimits;
+import com.project.ecommerce_crawler.service.HostPolitenessScheduler;
+import com.project.ecommerce_crawler.service.LinkExtractor;
+import com.project.ecommerce_crawler.service.PageFetch;
+import com.project.ecommerce_crawler.service.PageLinks;
+import com.project.ecommerce_crawler.service.PersistencePipeline;
+import com.project.ecommerce_crawler.service.RecrawlTracker;
+import com.project.ecommerce_crawler.service.RobotsTxt;
+import com.project.ecommerce_crawler.service.RobotsTxtService;
+import com.project.ecommerce_crawler.service.SitemapDiscovery;
+import com.project.ecommerce_crawler.service.UrlNormalizer;
+import com.project.ecommerce_crawler.service.UrlSeenStore;
+import com.project.ecommerce_crawler.service.WebCrawlerService;
+import com.project.ecommerce_crawler.service.YieldScorer;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+public class WebCrawlerServiceTest {
+
+    private UrlSeenStore urlSeenStore;
+    private CrawlFrontier crawlFrontier;
+    private PersistencePipeline persistencePipeline;
+    private RobotsTxtService robotsTxtService;
+    private CrawlCheckpoint crawlCheckpoint;
+    private SitemapDiscovery sitemapDiscovery;
+    private RecrawlTracker recrawlTracker;
+    private BlockingCrawlEngine blockingCrawlEngine;
+    private CrawlerProperties properties;
+    private WebCrawlerService webCrawlerService;
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        urlSeenStore = mock(UrlSeenStore.class);
+        crawlFrontier = mock(CrawlFrontier.class);
+        persistencePipeline = mock(PersistencePipeline.class);
+        robotsTxtService = mock(RobotsTxtService.class);
+        crawlCheckpoint = mock(CrawlCheckpoint.class);
+        sitemapDiscovery = mock(SitemapDiscovery.class);
+        recrawlTracker = mock(RecrawlTracker.class);
+        blockingCrawlEngine = mock(BlockingCrawlEngine.class);
+        properties = new CrawlerProperties();
+        properties.getFrontier().setWorkersPerDomain(1);
+        webCrawlerService = new WebCrawlerService(mock(WebClient.class), urlSeenStore, crawlFrontier,
+                mock(HostPolitenessScheduler.class), persistencePipeline, mock(LinkExtractor.class),
+                new UrlNormalizer(properties), robotsTxtService, sitemapDiscovery,
+                recrawlTracker, crawlCheckpoint, mock(FetchLimits.class), mock(CrawlMetrics.class),
+                mock(CrawlStats.class), blockingCrawlEngine, mock(YieldScorer.class), properties);
+
+        when(persistencePipeline.saveDomain(any())).thenReturn(Mono.empty());
+        when(robotsTxtService.rules(anyString())).thenReturn(Mono.just(RobotsTxt.allowAll()));
+        when(crawlCheckpoint.pending(any())).thenReturn(Flux.empty());
+        when(crawlFrontier.isExhausted(any())).thenReturn(true);
+
+        domain = new Domain();
+        domain.setId(1L);
+        domain.setUrl("https://www.example.com");
+    }
+
+    @Test
+    public void testRunWithFailedPagesCompletesAndStartsOverNextTime() {
+        LocalDateTime previousStart = LocalDateTime.now().minusDays(1);
+        domain.setStatus(CrawlStatus.COMPLETED);
+        domain.setCrawlStartedAt(previousStart);
+        when(crawlCheckpoint.failures(domain)).thenReturn(3);
+
+        webCrawlerService.crawlDomain(domain).blockLast();
+
+        assertEquals(CrawlStatus.COMPLETED, domain.getStatus());
+        assertEquals(3, domain.getFailedPages());
+        assertNotNull(domain.getLastCrawledAt());
+        assertTrue(domain.getCrawlStartedAt().isAfter(previousStart));
+        verify(urlSeenStore).open(domain, false);
+    }
+
+    @Test
+    public void testInterruptedRunResumes() {
+        LocalDateTime previousStart = LocalDateTime.now().minusHours(1);
+        domain.setStatus(CrawlStatus.IN_PROGRESS);
+        domain.setCrawlStartedAt(previousStart);
+
+        webCrawlerService.crawlDomain(domain).blockLast();
+
+        assertEquals(CrawlStatus.COMPLETED, domain.getStatus());
+        assertEquals(0, domain.getFailedPages());
+        assertEquals(previousStart, domain.getCrawlStartedAt());
+        verify(urlSeenStore).open(domain, true);
+    }
+
+    @Test
+    public void testUnreachableRobotsTxtLeavesTheRunToResume() {
+        when(robotsTxtService.rules(anyString())).thenReturn(Mono.just(RobotsTxt.unreachable()));
+
+        webCrawlerService.crawlDomain(domain).blockLast();
+
+        assertEquals(CrawlStatus.FAILED, domain.getStatus());
+        assertNull(domain.getLastCrawledAt());
+    }
+
+    @Test
+    public void testSitemapRunFetchesRequestedUrlsAndStopsReadingWhenHalted() {
+        properties.getDiscovery().setMode(CrawlerProperties.Discovery.Mode.SITEMAP);
+        when(robotsTxtService.rules(anyString())).thenReturn(Mono.just(
+                RobotsTxt.parse("Sitemap: https://www.example.com/sitemap.xml", "ecommerce-crawler")));
+        when(sitemapDiscovery.productUrls(eq(domain), anyList())).thenReturn(
+                Flux.just("https://www.example.com/product/1", "https://www.example.com/product/2"));
+        when(persistencePipeline.saveCrawledPage(any())).thenReturn(Mono.empty());
+        when(crawlFrontier.isHalted(domain)).thenReturn(true);
+        String requested = "https://www.example.com/collections/new-in";
+
+        List<ProductUrl> found = webCrawlerService.crawlDomain(domain,
+                new WebCrawlerService.CrawlOptions(List.of(requested), null, null)).collectList().block();
+
+        assertTrue(found.isEmpty());
+        verify(crawlFrontier).offer(domain, requested, properties.getFrontier().getMaxDepth(), null,
+                Double.MAX_VALUE);
+        verify(crawlFrontier, never()).accepts(anyInt());
+        verify(crawlCheckpoint, never()).pending(any());
+        assertEquals(CrawlStatus.COMPLETED, domain.getStatus());
+        assertNull(domain.getLastCrawledAt());
+    }
+
+    @Test
+    public void testStoresTheCanonicalUrlOfAPageWithProductMarkup() {
+        String url = "https://www.example.com/shirt?color=blue&utm_source=mail";
+        String canonical = "https://www.example.com/shirt";
+        FrontierEntry entry = new FrontierEntry();
+        entry.setUrl(url);
+        when(blockingCrawlEngine.isEnabled()).thenReturn(true);
+        when(blockingCrawlEngine.isWorkerThread()).thenReturn(true);
+        when(blockingCrawlEngine.drain(eq(domain), anyInt(), any())).thenAnswer(invocation ->
+                invocation.<Function<FrontierEntry, Flux<ProductUrl>>>getArgument(2).apply(entry));
+        when(recrawlTracker.find(eq(domain), eq(url), anyLong(), any())).thenReturn(new CrawledPage());
+        when(recrawlTracker.isDue(any())).thenReturn(true);
+        when(recrawlTracker.recordFetch(any(), any(), any(), anyLong())).thenReturn(true);
+        when(crawlCheckpoint.isPending(eq(domain), any())).thenReturn(true);
+        when(crawlCheckpoint.retry()).thenReturn(Retry.max(0));
+        when(crawlCheckpoint.queued(any(), anyString(), anyLong(), anyInt(), any())).thenReturn(new CrawledPage());
+        when(persistencePipeline.saveCrawledPage(any())).thenReturn(Mono.empty());
+        when(persistencePipeline.submitProductUrls(anyList())).thenReturn(Mono.empty());
+        when(blockingCrawlEngine.fetch(eq(domain), eq(url), any(), any())).thenReturn(Mono.just(new PageFetch(
+                PageFetch.Outcome.FETCHED, new PageLinks(List.of(), List.of(), canonical, true), null, null, 0)));
+        UrlNormalizer urlNormalizer = new UrlNormalizer(properties);
+
+        List<ProductUrl> found = webCrawlerService.crawlDomain(domain,
+                new WebCrawlerService.CrawlOptions(List.of(url), null, null)).collectList().block();
+
+        assertEquals(1, found.size());
+        assertEquals(canonical, found.get(0).getUrl());
+        assertEquals(urlNormalizer.fingerprint(canonical), found.get(0).getUrlHash());
+        verify(urlSeenStore).markSeen(domain, urlNormalizer.fingerprint(canonical));
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.ecommerce_crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.project.ecommerce_crawler.config.CrawlerProperties;
+import com.project.ecommerce_crawler.model.Domain;
+import com.project.ecommerce_crawler.service.YieldScorer;
+
+public class YieldScorerTest {
+
+    private CrawlerProperties properties;
+    private YieldScorer scorer;
+    private Domain domain;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new CrawlerProperties();
+        scorer = new YieldScorer(properties);
+
+        domain = new Domain();
+        domain.setId(1L);
+        domain.setUrl("https://www.example.com");
+    }
+
+    @Test
+    public void testRanksProductDensePrefixesFirst() {
+        for (int i = 0; i < 10; i++) {
+            scorer.record(domain, "https://www.example.com/collections/men-" + i, 40);
+            scorer.record(domain, "https://www.example.com/help/faq-" + i, 0);
+        }
+
+        double collections = scorer.score(domain, "https://www.example.com/collections/women", 3, 0);
+        double help = scorer.score(domain, "https://www.example.com/help/returns", 1, 0);
+        double unknown = scorer.score(domain, "https://www.example.com/about", 1, 0);
+
+        assertTrue(collections > unknown);
+        assertTrue(unknown > help);
+    }
+
+    @Test
+    public void testExpectsPaginationToYieldLikeItsParent() {
+        scorer.record(domain, "https://www.example.com/sale", 0);
+
+        assertTrue(scorer.isPagination("https://www.example.com/sale?page=2"));
+        assertFalse(scorer.isPagination("https://www.example.com/pages/about"));
+        assertTrue(scorer.score(domain, "https://www.example.com/sale?page=2", 2, 30) >= 29);
+    }
+
+    @Test
+    public void testFallsBackToDepthOrderWhenDisabled() {
+        properties.getPriority().setEnabled(false);
+        scorer.record(domain, "https://www.example.com/collections/men", 40);
+
+        assertEquals(-3.0, scorer.score(domain, "https://www.example.com/collections/women", 3, 0));
+    }
+}